@@ -0,0 +1,108 @@
+/**
+ * Copyright @ 2015 Quan Nguyen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.sourceforge.tess4j.benchmarks;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import net.sourceforge.tess4j.ITessAPI.TessPageIteratorLevel;
+import net.sourceforge.tess4j.OcrPageResult;
+import net.sourceforge.tess4j.TessAPI;
+import net.sourceforge.tess4j.Tesseract;
+import net.sourceforge.tess4j.TesseractException;
+import net.sourceforge.tess4j.Word;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of the JNA calls themselves, on the interface-mapped {@link TessAPI}
+ * and on the direct-mapped default binding of {@link Tesseract}. A page is
+ * recognized once in the setup; the benchmarks then only walk its results,
+ * which takes several native calls per word or symbol, get only the word
+ * confidences, or make one trivial call.<br>
+ * <br>
+ * Needs the Tesseract library and <code>eng.traineddata</code>, like
+ * {@link OcrBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class BindingBenchmark {
+
+    @Param({"interface", "direct"})
+    public String binding;
+
+    private Tesseract instance;
+    private TessAPI api;
+
+    @Setup
+    public void setUp() throws TesseractException, IOException {
+        instance = "interface".equals(binding) ? new Tesseract(TessAPI.INSTANCE) : new Tesseract();
+        instance.setDatapath(System.getProperty("tess4j.datapath", "../src/main/resources"));
+        api = instance.getAPI();
+
+        instance.init();
+        instance.setTessVariables();
+        instance.setImage(SyntheticImages.page(1240, 440, 150, BufferedImage.TYPE_BYTE_GRAY, 0), null);
+        instance.recognize(null, 1);
+    }
+
+    @TearDown
+    public void tearDown() {
+        instance.dispose();
+    }
+
+    @Benchmark
+    public String version() {
+        return api.TessVersion();
+    }
+
+    @Benchmark
+    public List<Word> getWords() {
+        return instance.getWords(TessPageIteratorLevel.RIL_WORD);
+    }
+
+    @Benchmark
+    public OcrPageResult getPageResult() {
+        return instance.getPageResult(TessPageIteratorLevel.RIL_SYMBOL);
+    }
+
+    @Benchmark
+    public int getMeanConfidence() {
+        return instance.getMeanConfidence();
+    }
+
+    @Benchmark
+    public int[] getWordConfidences() {
+        return instance.getWordConfidences();
+    }
+}
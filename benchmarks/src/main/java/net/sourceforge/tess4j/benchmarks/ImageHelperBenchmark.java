@@ -0,0 +1,75 @@
+/**
+ * Copyright @ 2015 Quan Nguyen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.sourceforge.tess4j.benchmarks;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+import net.sourceforge.tess4j.util.ImageHelper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The preprocessing operations of {@link ImageHelper} on an RGB A4 page.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ImageHelperBenchmark {
+
+    @Param({"150", "300"})
+    public int dpi;
+
+    private BufferedImage image;
+
+    @Setup
+    public void setUp() {
+        image = SyntheticImages.a4(dpi, BufferedImage.TYPE_INT_RGB, 0);
+    }
+
+    @Benchmark
+    public BufferedImage scale() {
+        return ImageHelper.getScaledInstance(image, image.getWidth() / 2, image.getHeight() / 2);
+    }
+
+    @Benchmark
+    public BufferedImage rotate() {
+        return ImageHelper.rotateImage(image, 2.5);
+    }
+
+    @Benchmark
+    public BufferedImage binarize() {
+        return ImageHelper.convertImageToBinary(image);
+    }
+
+    @Benchmark
+    public BufferedImage grayscale() {
+        return ImageHelper.convertImageToGrayscale(image);
+    }
+}
@@ -0,0 +1,75 @@
+/**
+ * Copyright @ 2015 Quan Nguyen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.sourceforge.tess4j.benchmarks;
+
+import java.awt.image.BufferedImage;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import net.sourceforge.tess4j.util.DirectBufferPool;
+import net.sourceforge.tess4j.util.ImageIOHelper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Conversion of an A4 page to the pixel data uploaded to Tesseract, per image
+ * type.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ImageIOHelperBenchmark {
+
+    @Param({"INT_RGB", "INT_ARGB", "INT_BGR", "3BYTE_BGR", "4BYTE_ABGR", "BYTE_GRAY", "USHORT_GRAY", "BYTE_BINARY", "BYTE_INDEXED"})
+    public String imageType;
+
+    @Param({"300"})
+    public int dpi;
+
+    private BufferedImage image;
+    private final DirectBufferPool pool = new DirectBufferPool(DirectBufferPool.DEFAULT_MAX_POOLED_BYTES);
+
+    @Setup
+    public void setUp() {
+        image = SyntheticImages.a4(dpi, SyntheticImages.type(imageType), 0);
+    }
+
+    @Benchmark
+    public ByteBuffer convertImageData() {
+        return ImageIOHelper.convertImageData(image);
+    }
+
+    @Benchmark
+    public int convertImageDataPooled() {
+        ByteBuffer buf = ImageIOHelper.convertImageData(image, pool);
+        int size = buf.limit();
+        pool.release(buf);
+        return size;
+    }
+}
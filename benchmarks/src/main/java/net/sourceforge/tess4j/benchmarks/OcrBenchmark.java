@@ -0,0 +1,89 @@
+/**
+ * Copyright @ 2015 Quan Nguyen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.sourceforge.tess4j.benchmarks;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+import net.sourceforge.tess4j.TessAPI;
+import net.sourceforge.tess4j.Tesseract;
+import net.sourceforge.tess4j.TesseractException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * End-to-end <code>doOCR</code> of {@link Tesseract} on the interface-mapped
+ * {@link TessAPI} and on its default direct-mapped binding, per image size.
+ * The engines are kept alive between calls, so loading the traineddata is not
+ * measured. See {@link BindingBenchmark} for the per-call overhead alone.<br>
+ * <br>
+ * Needs the Tesseract library and <code>eng.traineddata</code>; the tessdata
+ * parent directory is read from the <code>tess4j.datapath</code> system
+ * property, by default the library's <code>src/main/resources</code>.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class OcrBenchmark {
+
+    @Param({"interface", "direct"})
+    public String binding;
+
+    @Param({"640x160", "1240x1754", "2480x3508"})
+    public String size;
+
+    private Tesseract instance;
+    private BufferedImage image;
+
+    @Setup
+    public void setUp() {
+        String datapath = System.getProperty("tess4j.datapath", "../src/main/resources");
+        instance = "interface".equals(binding) ? new Tesseract(TessAPI.INSTANCE) : new Tesseract();
+        instance.setKeepAlive(true);
+        instance.setDatapath(datapath);
+
+        String[] dimensions = size.split("x");
+        int width = Integer.parseInt(dimensions[0]);
+        int height = Integer.parseInt(dimensions[1]);
+        // the A4 sizes are 150 and 300 dpi; text is sized accordingly
+        int dpi = width >= 2480 ? 300 : 150;
+        image = SyntheticImages.page(width, height, dpi, BufferedImage.TYPE_BYTE_GRAY, 0);
+    }
+
+    @TearDown
+    public void tearDown() {
+        instance.close();
+    }
+
+    @Benchmark
+    public String doOCR() throws TesseractException {
+        return instance.doOCR(image);
+    }
+}
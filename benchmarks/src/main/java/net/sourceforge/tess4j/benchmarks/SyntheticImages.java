@@ -0,0 +1,120 @@
+/**
+ * Copyright @ 2015 Quan Nguyen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.sourceforge.tess4j.benchmarks;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+
+/**
+ * Renders the pages the benchmarks run on, so that no image files or network
+ * access are needed and every run sees the same pixels.
+ */
+public final class SyntheticImages {
+
+    private static final String[] LINES = {
+        "The (quick) [brown] {fox} jumps!",
+        "Over the $43,456.78 <lazy> #90 dog",
+        "& duck/goose, as 12.5% of E-mail",
+        "from aspammer@website.com is spam."
+    };
+
+    private SyntheticImages() {
+    }
+
+    /**
+     * Gets an image type by the name of its <code>BufferedImage</code>
+     * constant without the <code>TYPE_</code> prefix, e.g.
+     * <code>INT_RGB</code>.
+     *
+     * @param name the type name
+     * @return the image type
+     */
+    public static int type(String name) {
+        try {
+            return BufferedImage.class.getField("TYPE_" + name).getInt(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("Unknown image type: " + name, e);
+        }
+    }
+
+    /**
+     * Renders an A4 page of text.
+     *
+     * @param dpi the resolution
+     * @param type the image type
+     * @param skew rotation of the text, in degrees
+     * @return the page
+     */
+    public static BufferedImage a4(int dpi, int type, double skew) {
+        return page(Math.round(8.27f * dpi), Math.round(11.69f * dpi), dpi, type, skew);
+    }
+
+    /**
+     * Renders a page filled with lines of 12 point text.
+     *
+     * @param width the width
+     * @param height the height
+     * @param dpi the resolution the text is sized for
+     * @param type the image type
+     * @param skew rotation of the text, in degrees
+     * @return the page
+     */
+    public static BufferedImage page(int width, int height, int dpi, int type, double skew) {
+        BufferedImage rgb = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = rgb.createGraphics();
+        try {
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, width, height);
+            g.setColor(Color.BLACK);
+            g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g.rotate(Math.toRadians(skew), width / 2.0, height / 2.0);
+            int size = Math.max(8, 12 * dpi / 72);
+            g.setFont(new Font(Font.SERIF, Font.PLAIN, size));
+            int margin = dpi / 2;
+            int lineHeight = size * 3 / 2;
+            for (int y = margin + size, i = 0; y < height - margin / 2; y += lineHeight, i++) {
+                g.drawString(LINES[i % LINES.length], margin / 2, y);
+            }
+        } finally {
+            g.dispose();
+        }
+        return convert(rgb, type);
+    }
+
+    /**
+     * Converts an image to another type.
+     *
+     * @param image the image
+     * @param type the image type
+     * @return the image, or a copy of the requested type
+     */
+    public static BufferedImage convert(BufferedImage image, int type) {
+        if (image.getType() == type) {
+            return image;
+        }
+        BufferedImage converted = new BufferedImage(image.getWidth(), image.getHeight(), type);
+        Graphics2D g = converted.createGraphics();
+        try {
+            g.drawImage(image, 0, 0, null);
+        } finally {
+            g.dispose();
+        }
+        return converted;
+    }
+}
@@ -0,0 +1,240 @@
+/**
+ * <a url=http://www.jdeskew.com/>JDeskew</a>
+ */
+package com.recognition.software.jdeskew;
+
+import java.awt.color.ColorSpace;
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.ComponentColorModel;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DirectColorModel;
+import java.awt.image.MultiPixelPackedSampleModel;
+import java.awt.image.Raster;
+
+/**
+ * Finds the black pixels of an image a row at a time, as a bit set with one
+ * bit per pixel. Rows are copied out of the raster in one call, or read
+ * straight from the data buffer of binary images, and classified with lookup
+ * tables instead of converting every pixel through the color model. The
+ * result is the same as calling {@link ImageUtil#isBlack(BufferedImage, int, int)}
+ * for each pixel.
+ */
+final class BlackRowScanner {
+
+    private static final int LUMINANCE_CUT_OFF = 140;
+
+    // luminance weights, scaled by 1000
+    private static final int[] RED = new int[256];
+    private static final int[] GREEN = new int[256];
+    private static final int[] BLUE = new int[256];
+
+    static {
+        for (int i = 0; i < 256; i++) {
+            RED[i] = i * 299;
+            GREEN[i] = i * 587;
+            BLUE[i] = i * 114;
+        }
+    }
+
+    private static final int PACKED = 0;
+    private static final int INDEXED = 1;
+    private static final int DIRECT_INT = 2;
+    private static final int COMPONENT_BYTE = 3;
+    private static final int RGB = 4;
+
+    private final BufferedImage image;
+    private final Raster raster;
+    private final int width;
+    private final int mode;
+
+    // packed binary pixels
+    private byte[] packed;
+    private int scanlineStride;
+    private int pixelBitStride;
+    private int firstBit;
+    private int rowOffset;
+
+    // black pixel values, for 8-bit pixels
+    private boolean[] blackValues;
+
+    // component masks and shifts, for packed RGB pixels
+    private int redMask;
+    private int greenMask;
+    private int blueMask;
+    private int redShift;
+    private int greenShift;
+    private int blueShift;
+
+    // samples per pixel, for interleaved RGB pixels
+    private int numComponents;
+
+    private byte[] byteRow;
+    private int[] intRow;
+
+    BlackRowScanner(BufferedImage image) {
+        this.image = image;
+        this.raster = image.getRaster();
+        this.width = image.getWidth();
+
+        ColorModel cm = image.getColorModel();
+        int transferType = raster.getTransferType();
+        if (image.getType() == BufferedImage.TYPE_BYTE_BINARY
+                && raster.getSampleModel() instanceof MultiPixelPackedSampleModel
+                && raster.getDataBuffer() instanceof DataBufferByte) {
+            // black is a sample of 0, whatever the palette
+            MultiPixelPackedSampleModel sm = (MultiPixelPackedSampleModel) raster.getSampleModel();
+            DataBuffer db = raster.getDataBuffer();
+            int smX = -raster.getSampleModelTranslateX();
+            int smY = -raster.getSampleModelTranslateY();
+            packed = ((DataBufferByte) db).getData();
+            scanlineStride = sm.getScanlineStride();
+            pixelBitStride = sm.getPixelBitStride();
+            firstBit = smX * pixelBitStride + sm.getDataBitOffset();
+            rowOffset = db.getOffset() + smY * scanlineStride;
+            mode = PACKED;
+        } else if (raster.getNumDataElements() == 1 && transferType == DataBuffer.TYPE_BYTE
+                && image.getType() != BufferedImage.TYPE_BYTE_BINARY) {
+            blackValues = new boolean[256];
+            byte[] pixel = new byte[1];
+            for (int v = 0; v < 256; v++) {
+                pixel[0] = (byte) v;
+                blackValues[v] = isBlack(cm.getRGB(pixel));
+            }
+            byteRow = new byte[width];
+            mode = INDEXED;
+        } else if (cm instanceof DirectColorModel && transferType == DataBuffer.TYPE_INT
+                && isStandardRGB(cm)) {
+            DirectColorModel dcm = (DirectColorModel) cm;
+            redMask = dcm.getRedMask();
+            greenMask = dcm.getGreenMask();
+            blueMask = dcm.getBlueMask();
+            redShift = Integer.numberOfTrailingZeros(redMask);
+            greenShift = Integer.numberOfTrailingZeros(greenMask);
+            blueShift = Integer.numberOfTrailingZeros(blueMask);
+            intRow = new int[width];
+            mode = DIRECT_INT;
+        } else if (cm instanceof ComponentColorModel && transferType == DataBuffer.TYPE_BYTE
+                && isStandardRGB(cm) && raster.getNumDataElements() == cm.getNumComponents()) {
+            // data elements come in component order: red, green, blue, alpha
+            numComponents = cm.getNumComponents();
+            byteRow = new byte[width * numComponents];
+            mode = COMPONENT_BYTE;
+        } else {
+            intRow = new int[width];
+            mode = RGB;
+        }
+    }
+
+    /**
+     * @return whether pixel values are 8-bit sRGB components, which the color
+     * model converts to RGB unchanged
+     */
+    private static boolean isStandardRGB(ColorModel cm) {
+        if (!cm.getColorSpace().isCS_sRGB() || cm.isAlphaPremultiplied() || cm.getNumColorComponents() != 3) {
+            return false;
+        }
+        for (int size : cm.getComponentSize()) {
+            if (size != 8) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Finds the black pixels of a row.
+     *
+     * @param y the row
+     * @param black receives one bit per pixel, set for black pixels, with
+     * pixel <code>x</code> at bit <code>x % 64</code> of element
+     * <code>x / 64</code>; at least <code>(width + 63) / 64</code> long
+     */
+    void scan(int y, long[] black) {
+        int words = (width + 63) >>> 6;
+        for (int w = 0; w < words; w++) {
+            black[w] = 0L;
+        }
+
+        switch (mode) {
+            case PACKED:
+                scanPacked(y, black);
+                break;
+            case INDEXED:
+                raster.getDataElements(0, y, width, 1, byteRow);
+                for (int x = 0; x < width; x++) {
+                    if (blackValues[byteRow[x] & 0xff]) {
+                        black[x >>> 6] |= 1L << x;
+                    }
+                }
+                break;
+            case DIRECT_INT:
+                raster.getDataElements(0, y, width, 1, intRow);
+                for (int x = 0; x < width; x++) {
+                    int p = intRow[x];
+                    if (isBlack((p & redMask) >>> redShift, (p & greenMask) >>> greenShift, (p & blueMask) >>> blueShift)) {
+                        black[x >>> 6] |= 1L << x;
+                    }
+                }
+                break;
+            case COMPONENT_BYTE:
+                raster.getDataElements(0, y, width, 1, byteRow);
+                for (int x = 0, i = 0; x < width; x++, i += numComponents) {
+                    if (isBlack(byteRow[i] & 0xff, byteRow[i + 1] & 0xff, byteRow[i + 2] & 0xff)) {
+                        black[x >>> 6] |= 1L << x;
+                    }
+                }
+                break;
+            default:
+                image.getRGB(0, y, width, 1, intRow, 0, width);
+                for (int x = 0; x < width; x++) {
+                    if (isBlack(intRow[x])) {
+                        black[x >>> 6] |= 1L << x;
+                    }
+                }
+                break;
+        }
+    }
+
+    private void scanPacked(int y, long[] black) {
+        int row = rowOffset + y * scanlineStride;
+        if (pixelBitStride == 1 && (firstBit & 7) == 0) {
+            // eight pixels per byte, first pixel in the high bit
+            int start = row + (firstBit >>> 3);
+            int fullBytes = width >>> 3;
+            for (int k = 0; k < fullBytes; k++) {
+                int pixels = Integer.reverse(~packed[start + k] & 0xff) >>> 24;
+                black[k >>> 3] |= (long) pixels << ((k & 7) << 3);
+            }
+            int rest = width & 7;
+            if (rest != 0) {
+                int pixels = Integer.reverse(~packed[start + fullBytes] & 0xff) >>> 24;
+                pixels &= (1 << rest) - 1;
+                black[fullBytes >>> 3] |= (long) pixels << ((fullBytes & 7) << 3);
+            }
+            return;
+        }
+
+        int sampleMask = (1 << pixelBitStride) - 1;
+        for (int x = 0, bit = firstBit; x < width; x++, bit += pixelBitStride) {
+            int sample = (packed[row + (bit >>> 3)] >> (8 - pixelBitStride - (bit & 7))) & sampleMask;
+            if (sample == 0) {
+                black[x >>> 6] |= 1L << x;
+            }
+        }
+    }
+
+    private static boolean isBlack(int rgb) {
+        return isBlack((rgb >> 16) & 0xff, (rgb >> 8) & 0xff, rgb & 0xff);
+    }
+
+    private static boolean isBlack(int r, int g, int b) {
+        int luminance = RED[r] + GREEN[g] + BLUE[b];
+        if (luminance != LUMINANCE_CUT_OFF * 1000) {
+            return luminance < LUMINANCE_CUT_OFF * 1000;
+        }
+        // exactly on the cut-off; decided in floating point like ImageUtil
+        return (r * 0.299) + (g * 0.587) + (b * 0.114) < LUMINANCE_CUT_OFF;
+    }
+}
@@ -112,15 +112,37 @@ public class ImageDeskew {
         int hMax = (int) ((this.cImage.getHeight()) * 3.0 / 4.0);
         init();
 
+        int width = this.cImage.getWidth();
+        if (hMin >= hMax || width < 4) {
+            return;
+        }
+
+        // rows are scanned once into bit sets of black pixels, one bit per
+        // pixel; lower edges are black pixels above non-black ones, found 64
+        // pixels at a time
+        int words = (width + 63) >>> 6;
+        long[] columns = new long[words];
+        for (int x = 1; x < width - 2; x++) {
+            columns[x >>> 6] |= 1L << x;
+        }
+        BlackRowScanner scanner = new BlackRowScanner(this.cImage);
+        long[] row = new long[words];
+        long[] below = new long[words];
+        scanner.scan(hMin, row);
+
         for (int y = hMin; y < hMax; y++) {
-            for (int x = 1; x < (this.cImage.getWidth() - 2); x++) {
+            scanner.scan(y + 1, below);
+            for (int w = 0; w < words; w++) {
                 // only lower edges are considered
-                if (ImageUtil.isBlack(this.cImage, x, y)) {
-                    if (!ImageUtil.isBlack(this.cImage, x, y + 1)) {
-                        calc(x, y);
-                    }
+                long edges = row[w] & ~below[w] & columns[w];
+                while (edges != 0) {
+                    calc((w << 6) + Long.numberOfTrailingZeros(edges), y);
+                    edges &= edges - 1;
                 }
             }
+            long[] swap = row;
+            row = below;
+            below = swap;
         }
 
     }
@@ -0,0 +1,105 @@
+/**
+ * Copyright @ 2015 Quan Nguyen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.sourceforge.tess4j;
+
+import java.util.concurrent.TimeUnit;
+
+import net.sourceforge.tess4j.ITessAPI.CANCEL_FUNC;
+import net.sourceforge.tess4j.ITessAPI.ETEXT_DESC;
+import net.sourceforge.tess4j.ITessAPI.TimeVal;
+
+import com.sun.jna.NativeLong;
+import com.sun.jna.Pointer;
+
+/**
+ * Cancels a running recognition, either on request or when a deadline
+ * passes. The token is checked by the engine itself through the
+ * <code>cancel</code> callback and <code>end_time</code> of the
+ * <code>ETEXT_DESC</code> monitor passed to <code>TessBaseAPIRecognize</code>,
+ * so a long recognition stops inside the native call.
+ */
+public class CancellationToken {
+
+    private volatile boolean cancelled;
+    // System.nanoTime() deadline for checks, wall clock deadline for the engine
+    private final long deadlineNanos;
+    private final long deadlineMillis;
+
+    /**
+     * Creates a token without deadline.
+     */
+    public CancellationToken() {
+        this.deadlineNanos = 0;
+        this.deadlineMillis = 0;
+    }
+
+    private CancellationToken(long timeout, TimeUnit unit) {
+        long nanos = unit.toNanos(timeout);
+        this.deadlineNanos = System.nanoTime() + nanos;
+        this.deadlineMillis = System.currentTimeMillis() + TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    /**
+     * Creates a token that cancels the recognition once the timeout has
+     * elapsed.
+     *
+     * @param timeout the maximum time for the recognition
+     * @param unit the time unit of the timeout
+     * @return a new token
+     */
+    public static CancellationToken withTimeout(long timeout, TimeUnit unit) {
+        return new CancellationToken(timeout, unit);
+    }
+
+    /**
+     * Requests cancellation of the recognition.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Checks whether the recognition should stop.
+     *
+     * @return true if cancelled or the deadline has passed
+     */
+    public boolean isCancelled() {
+        return cancelled || (deadlineMillis != 0 && System.nanoTime() - deadlineNanos >= 0);
+    }
+
+    /**
+     * Creates a progress monitor wired to this token. The monitor must stay
+     * referenced until the recognition using it has returned.
+     *
+     * @return the monitor
+     */
+    ETEXT_DESC createMonitor() {
+        ETEXT_DESC monitor = new ETEXT_DESC();
+        monitor.cancel = new CANCEL_FUNC() {
+            @Override
+            public boolean invoke(Pointer cancel_this, int words) {
+                return isCancelled();
+            }
+        };
+        if (deadlineMillis != 0) {
+            TimeVal endTime = new TimeVal();
+            endTime.tv_sec = new NativeLong(deadlineMillis / 1000);
+            endTime.tv_usec = new NativeLong((deadlineMillis % 1000) * 1000);
+            monitor.end_time = endTime;
+        }
+        return monitor;
+    }
+}
@@ -0,0 +1,624 @@
+/**
+ * Copyright @ 2015 Quan Nguyen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.sourceforge.tess4j;
+
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+
+import net.sourceforge.lept4j.Boxa;
+import net.sourceforge.lept4j.Pix;
+
+import com.ochafik.lang.jnaerator.runtime.NativeSize;
+import com.sun.jna.Pointer;
+import com.sun.jna.ptr.IntByReference;
+import com.sun.jna.ptr.PointerByReference;
+
+/**
+ * Exposes the direct-mapped {@link TessAPI1} through the {@link TessAPI}
+ * interface. Calls go straight to the registered native functions instead of
+ * through the reflective proxy of the interface mapping, which matters on
+ * paths making thousands of calls per page, such as result iteration. This is
+ * the binding {@link Tesseract} uses by default.
+ */
+public final class DirectTessAPI implements TessAPI {
+
+    private static final DirectTessAPI instance = new DirectTessAPI();
+
+    private DirectTessAPI() {
+    }
+
+    /**
+     * Gets the binding. The native library is registered on the first call
+     * made through it.
+     *
+     * @return the binding
+     */
+    public static DirectTessAPI getInstance() {
+        return instance;
+    }
+
+    @Override
+    public String TessVersion() {
+        return TessAPI1.TessVersion();
+    }
+
+    @Override
+    public void TessDeleteText(Pointer text) {
+        TessAPI1.TessDeleteText(text);
+    }
+
+    @Override
+    public void TessDeleteTextArray(PointerByReference arr) {
+        TessAPI1.TessDeleteTextArray(arr);
+    }
+
+    @Override
+    public void TessDeleteIntArray(IntBuffer arr) {
+        TessAPI1.TessDeleteIntArray(arr);
+    }
+
+    @Override
+    public TessResultRenderer TessTextRendererCreate(String outputbase) {
+        return TessAPI1.TessTextRendererCreate(outputbase);
+    }
+
+    @Override
+    public TessResultRenderer TessHOcrRendererCreate(String outputbase) {
+        return TessAPI1.TessHOcrRendererCreate(outputbase);
+    }
+
+    @Override
+    public TessResultRenderer TessPDFRendererCreate(String outputbase, String datadir) {
+        return TessAPI1.TessPDFRendererCreate(outputbase, datadir);
+    }
+
+    @Override
+    public TessResultRenderer TessUnlvRendererCreate(String outputbase) {
+        return TessAPI1.TessUnlvRendererCreate(outputbase);
+    }
+
+    @Override
+    public TessResultRenderer TessBoxTextRendererCreate(String outputbase) {
+        return TessAPI1.TessBoxTextRendererCreate(outputbase);
+    }
+
+    @Override
+    public void TessDeleteResultRenderer(TessResultRenderer renderer) {
+        TessAPI1.TessDeleteResultRenderer(renderer);
+    }
+
+    @Override
+    public void TessResultRendererInsert(TessResultRenderer renderer, TessResultRenderer next) {
+        TessAPI1.TessResultRendererInsert(renderer, next);
+    }
+
+    @Override
+    public TessResultRenderer TessResultRendererNext(TessResultRenderer renderer) {
+        return TessAPI1.TessResultRendererNext(renderer);
+    }
+
+    @Override
+    public int TessResultRendererBeginDocument(TessResultRenderer renderer, String title) {
+        return TessAPI1.TessResultRendererBeginDocument(renderer, title);
+    }
+
+    @Override
+    public int TessResultRendererAddImage(TessResultRenderer renderer, PointerByReference api) {
+        return TessAPI1.TessResultRendererAddImage(renderer, api);
+    }
+
+    @Override
+    public int TessResultRendererEndDocument(TessResultRenderer renderer) {
+        return TessAPI1.TessResultRendererEndDocument(renderer);
+    }
+
+    @Override
+    public Pointer TessResultRendererExtention(TessResultRenderer renderer) {
+        return TessAPI1.TessResultRendererExtention(renderer);
+    }
+
+    @Override
+    public Pointer TessResultRendererTitle(TessResultRenderer renderer) {
+        return TessAPI1.TessResultRendererTitle(renderer);
+    }
+
+    @Override
+    public int TessResultRendererImageNum(TessResultRenderer renderer) {
+        return TessAPI1.TessResultRendererImageNum(renderer);
+    }
+
+    @Override
+    public TessBaseAPI TessBaseAPICreate() {
+        return TessAPI1.TessBaseAPICreate();
+    }
+
+    @Override
+    public void TessBaseAPIDelete(TessBaseAPI handle) {
+        TessAPI1.TessBaseAPIDelete(handle);
+    }
+
+    @Override
+    public void TessBaseAPISetInputName(TessBaseAPI handle, String name) {
+        TessAPI1.TessBaseAPISetInputName(handle, name);
+    }
+
+    @Override
+    public String TessBaseAPIGetInputName(TessBaseAPI handle) {
+        return TessAPI1.TessBaseAPIGetInputName(handle);
+    }
+
+    @Override
+    public void TessBaseAPISetInputImage(TessBaseAPI handle, Pix pix) {
+        TessAPI1.TessBaseAPISetInputImage(handle, pix);
+    }
+
+    @Override
+    public Pix TessBaseAPIGetInputImage(TessBaseAPI handle) {
+        return TessAPI1.TessBaseAPIGetInputImage(handle);
+    }
+
+    @Override
+    public int TessBaseAPIGetSourceYResolution(TessBaseAPI handle) {
+        return TessAPI1.TessBaseAPIGetSourceYResolution(handle);
+    }
+
+    @Override
+    public String TessBaseAPIGetDatapath(TessBaseAPI handle) {
+        return TessAPI1.TessBaseAPIGetDatapath(handle);
+    }
+
+    @Override
+    public void TessBaseAPISetOutputName(TessBaseAPI handle, String name) {
+        TessAPI1.TessBaseAPISetOutputName(handle, name);
+    }
+
+    @Override
+    public int TessBaseAPISetVariable(TessBaseAPI handle, String name, String value) {
+        return TessAPI1.TessBaseAPISetVariable(handle, name, value);
+    }
+
+    @Override
+    public int TessBaseAPIGetIntVariable(TessBaseAPI handle, String name, IntBuffer value) {
+        return TessAPI1.TessBaseAPIGetIntVariable(handle, name, value);
+    }
+
+    @Override
+    public int TessBaseAPIGetBoolVariable(TessBaseAPI handle, String name, IntBuffer value) {
+        return TessAPI1.TessBaseAPIGetBoolVariable(handle, name, value);
+    }
+
+    @Override
+    public int TessBaseAPIGetDoubleVariable(TessBaseAPI handle, String name, DoubleBuffer value) {
+        return TessAPI1.TessBaseAPIGetDoubleVariable(handle, name, value);
+    }
+
+    @Override
+    public String TessBaseAPIGetStringVariable(TessBaseAPI handle, String name) {
+        return TessAPI1.TessBaseAPIGetStringVariable(handle, name);
+    }
+
+    @Override
+    public void TessBaseAPIPrintVariablesToFile(TessBaseAPI handle, String filename) {
+        TessAPI1.TessBaseAPIPrintVariablesToFile(handle, filename);
+    }
+
+    @Override
+    public int TessBaseAPIInit1(TessBaseAPI handle, String datapath, String language, int oem, PointerByReference configs, int configs_size) {
+        return TessAPI1.TessBaseAPIInit1(handle, datapath, language, oem, configs, configs_size);
+    }
+
+    @Override
+    public int TessBaseAPIInit2(TessBaseAPI handle, String datapath, String language, int oem) {
+        return TessAPI1.TessBaseAPIInit2(handle, datapath, language, oem);
+    }
+
+    @Override
+    public int TessBaseAPIInit3(TessBaseAPI handle, String datapath, String language) {
+        return TessAPI1.TessBaseAPIInit3(handle, datapath, language);
+    }
+
+    @Override
+    public int TessBaseAPIInit4(TessBaseAPI handle, String datapath, String language, int oem, PointerByReference configs, int configs_size, PointerByReference vars_vec, PointerByReference vars_values, NativeSize vars_vec_size, int set_only_non_debug_params) {
+        return TessAPI1.TessBaseAPIInit4(handle, datapath, language, oem, configs, configs_size, vars_vec, vars_values, vars_vec_size, set_only_non_debug_params);
+    }
+
+    @Override
+    public String TessBaseAPIGetInitLanguagesAsString(TessBaseAPI handle) {
+        return TessAPI1.TessBaseAPIGetInitLanguagesAsString(handle);
+    }
+
+    @Override
+    public PointerByReference TessBaseAPIGetLoadedLanguagesAsVector(TessBaseAPI handle) {
+        return TessAPI1.TessBaseAPIGetLoadedLanguagesAsVector(handle);
+    }
+
+    @Override
+    public PointerByReference TessBaseAPIGetAvailableLanguagesAsVector(TessBaseAPI handle) {
+        return TessAPI1.TessBaseAPIGetAvailableLanguagesAsVector(handle);
+    }
+
+    @Override
+    public int TessBaseAPIInitLangMod(TessBaseAPI handle, String datapath, String language) {
+        return TessAPI1.TessBaseAPIInitLangMod(handle, datapath, language);
+    }
+
+    @Override
+    public void TessBaseAPIInitForAnalysePage(TessBaseAPI handle) {
+        TessAPI1.TessBaseAPIInitForAnalysePage(handle);
+    }
+
+    @Override
+    public void TessBaseAPIReadConfigFile(TessBaseAPI handle, String filename, int init_only) {
+        TessAPI1.TessBaseAPIReadConfigFile(handle, filename, init_only);
+    }
+
+    @Override
+    public void TessBaseAPISetPageSegMode(TessBaseAPI handle, int mode) {
+        TessAPI1.TessBaseAPISetPageSegMode(handle, mode);
+    }
+
+    @Override
+    public int TessBaseAPIGetPageSegMode(TessBaseAPI handle) {
+        return TessAPI1.TessBaseAPIGetPageSegMode(handle);
+    }
+
+    @Override
+    public Pointer TessBaseAPIRect(TessBaseAPI handle, ByteBuffer imagedata, int bytes_per_pixel, int bytes_per_line, int left, int top, int width, int height) {
+        return TessAPI1.TessBaseAPIRect(handle, imagedata, bytes_per_pixel, bytes_per_line, left, top, width, height);
+    }
+
+    @Override
+    public void TessBaseAPIClearAdaptiveClassifier(TessBaseAPI handle) {
+        TessAPI1.TessBaseAPIClearAdaptiveClassifier(handle);
+    }
+
+    @Override
+    public void TessBaseAPISetImage(TessBaseAPI handle, ByteBuffer imagedata, int width, int height, int bytes_per_pixel, int bytes_per_line) {
+        TessAPI1.TessBaseAPISetImage(handle, imagedata, width, height, bytes_per_pixel, bytes_per_line);
+    }
+
+    @Override
+    public void TessBaseAPISetImage2(TessBaseAPI handle, Pix pix) {
+        TessAPI1.TessBaseAPISetImage2(handle, pix);
+    }
+
+    @Override
+    public void TessBaseAPISetSourceResolution(TessBaseAPI handle, int ppi) {
+        TessAPI1.TessBaseAPISetSourceResolution(handle, ppi);
+    }
+
+    @Override
+    public void TessBaseAPISetRectangle(TessBaseAPI handle, int left, int top, int width, int height) {
+        TessAPI1.TessBaseAPISetRectangle(handle, left, top, width, height);
+    }
+
+    @Override
+    public Pix TessBaseAPIGetThresholdedImage(TessBaseAPI handle) {
+        return TessAPI1.TessBaseAPIGetThresholdedImage(handle);
+    }
+
+    @Override
+    public Boxa TessBaseAPIGetRegions(TessBaseAPI handle, PointerByReference pixa) {
+        return TessAPI1.TessBaseAPIGetRegions(handle, pixa);
+    }
+
+    @Override
+    public Boxa TessBaseAPIGetTextlines(TessBaseAPI handle, PointerByReference pixa, PointerByReference blockids) {
+        return TessAPI1.TessBaseAPIGetTextlines(handle, pixa, blockids);
+    }
+
+    @Override
+    public Boxa TessBaseAPIGetTextlines1(TessBaseAPI handle, int raw_image, int raw_padding, PointerByReference pixa, PointerByReference blockids, PointerByReference paraids) {
+        return TessAPI1.TessBaseAPIGetTextlines1(handle, raw_image, raw_padding, pixa, blockids, paraids);
+    }
+
+    @Override
+    public Boxa TessBaseAPIGetStrips(TessBaseAPI handle, PointerByReference pixa, PointerByReference blockids) {
+        return TessAPI1.TessBaseAPIGetStrips(handle, pixa, blockids);
+    }
+
+    @Override
+    public Boxa TessBaseAPIGetWords(TessBaseAPI handle, PointerByReference pixa) {
+        return TessAPI1.TessBaseAPIGetWords(handle, pixa);
+    }
+
+    @Override
+    public Boxa TessBaseAPIGetConnectedComponents(TessBaseAPI handle, PointerByReference cc) {
+        return TessAPI1.TessBaseAPIGetConnectedComponents(handle, cc);
+    }
+
+    @Override
+    public Boxa TessBaseAPIGetComponentImages(TessBaseAPI handle, int level, int text_only, PointerByReference pixa, PointerByReference blockids) {
+        return TessAPI1.TessBaseAPIGetComponentImages(handle, level, text_only, pixa, blockids);
+    }
+
+    @Override
+    public Boxa TessBaseAPIGetComponentImages1(TessBaseAPI handle, int level, int text_only, int raw_image, int raw_padding, PointerByReference pixa, PointerByReference blockids, PointerByReference paraids) {
+        return TessAPI1.TessBaseAPIGetComponentImages1(handle, level, text_only, raw_image, raw_padding, pixa, blockids, paraids);
+    }
+
+    @Override
+    public int TessBaseAPIGetThresholdedImageScaleFactor(TessBaseAPI handle) {
+        return TessAPI1.TessBaseAPIGetThresholdedImageScaleFactor(handle);
+    }
+
+    @Override
+    public void TessBaseAPIDumpPGM(TessBaseAPI handle, String filename) {
+        TessAPI1.TessBaseAPIDumpPGM(handle, filename);
+    }
+
+    @Override
+    public TessPageIterator TessBaseAPIAnalyseLayout(TessBaseAPI handle) {
+        return TessAPI1.TessBaseAPIAnalyseLayout(handle);
+    }
+
+    @Override
+    public int TessBaseAPIRecognize(TessBaseAPI handle, ETEXT_DESC monitor) {
+        return TessAPI1.TessBaseAPIRecognize(handle, monitor);
+    }
+
+    @Override
+    public int TessBaseAPIRecognizeForChopTest(TessBaseAPI handle, ETEXT_DESC monitor) {
+        return TessAPI1.TessBaseAPIRecognizeForChopTest(handle, monitor);
+    }
+
+    @Override
+    public TessResultIterator TessBaseAPIGetIterator(TessBaseAPI handle) {
+        return TessAPI1.TessBaseAPIGetIterator(handle);
+    }
+
+    @Override
+    public TessMutableIterator TessBaseAPIGetMutableIterator(TessBaseAPI handle) {
+        return TessAPI1.TessBaseAPIGetMutableIterator(handle);
+    }
+
+    @Override
+    public int TessBaseAPIProcessPages(TessBaseAPI handle, String filename, String retry_config, int timeout_millisec, TessResultRenderer renderer) {
+        return TessAPI1.TessBaseAPIProcessPages(handle, filename, retry_config, timeout_millisec, renderer);
+    }
+
+    @Override
+    public int TessBaseAPIProcessPage(TessBaseAPI handle, Pix pix, int page_index, String filename, String retry_config, int timeout_millisec, TessResultRenderer renderer) {
+        return TessAPI1.TessBaseAPIProcessPage(handle, pix, page_index, filename, retry_config, timeout_millisec, renderer);
+    }
+
+    @Override
+    public Pointer TessBaseAPIGetUTF8Text(TessBaseAPI handle) {
+        return TessAPI1.TessBaseAPIGetUTF8Text(handle);
+    }
+
+    @Override
+    public Pointer TessBaseAPIGetHOCRText(TessBaseAPI handle, int page_number) {
+        return TessAPI1.TessBaseAPIGetHOCRText(handle, page_number);
+    }
+
+    @Override
+    public Pointer TessBaseAPIGetBoxText(TessBaseAPI handle, int page_number) {
+        return TessAPI1.TessBaseAPIGetBoxText(handle, page_number);
+    }
+
+    @Override
+    public Pointer TessBaseAPIGetUNLVText(TessBaseAPI handle) {
+        return TessAPI1.TessBaseAPIGetUNLVText(handle);
+    }
+
+    @Override
+    public int TessBaseAPIMeanTextConf(TessBaseAPI handle) {
+        return TessAPI1.TessBaseAPIMeanTextConf(handle);
+    }
+
+    @Override
+    public IntByReference TessBaseAPIAllWordConfidences(TessBaseAPI handle) {
+        return TessAPI1.TessBaseAPIAllWordConfidences(handle);
+    }
+
+    @Override
+    public int TessBaseAPIAdaptToWordStr(TessBaseAPI handle, int mode, String wordstr) {
+        return TessAPI1.TessBaseAPIAdaptToWordStr(handle, mode, wordstr);
+    }
+
+    @Override
+    public void TessBaseAPIClear(TessBaseAPI handle) {
+        TessAPI1.TessBaseAPIClear(handle);
+    }
+
+    @Override
+    public void TessBaseAPIEnd(TessBaseAPI handle) {
+        TessAPI1.TessBaseAPIEnd(handle);
+    }
+
+    @Override
+    public int TessBaseAPIIsValidWord(TessBaseAPI handle, String word) {
+        return TessAPI1.TessBaseAPIIsValidWord(handle, word);
+    }
+
+    @Override
+    public int TessBaseAPIGetTextDirection(TessBaseAPI handle, IntBuffer out_offset, FloatBuffer out_slope) {
+        return TessAPI1.TessBaseAPIGetTextDirection(handle, out_offset, out_slope);
+    }
+
+    @Override
+    public void TessBaseAPIClearPersistentCache(TessBaseAPI handle) {
+        TessAPI1.TessBaseAPIClearPersistentCache(handle);
+    }
+
+    @Override
+    public String TessBaseAPIGetUnichar(TessBaseAPI handle, int unichar_id) {
+        return TessAPI1.TessBaseAPIGetUnichar(handle, unichar_id);
+    }
+
+    @Override
+    public void TessPageIteratorDelete(TessPageIterator handle) {
+        TessAPI1.TessPageIteratorDelete(handle);
+    }
+
+    @Override
+    public TessPageIterator TessPageIteratorCopy(TessPageIterator handle) {
+        return TessAPI1.TessPageIteratorCopy(handle);
+    }
+
+    @Override
+    public void TessPageIteratorBegin(TessPageIterator handle) {
+        TessAPI1.TessPageIteratorBegin(handle);
+    }
+
+    @Override
+    public int TessPageIteratorNext(TessPageIterator handle, int level) {
+        return TessAPI1.TessPageIteratorNext(handle, level);
+    }
+
+    @Override
+    public int TessPageIteratorIsAtBeginningOf(TessPageIterator handle, int level) {
+        return TessAPI1.TessPageIteratorIsAtBeginningOf(handle, level);
+    }
+
+    @Override
+    public int TessPageIteratorIsAtFinalElement(TessPageIterator handle, int level, int element) {
+        return TessAPI1.TessPageIteratorIsAtFinalElement(handle, level, element);
+    }
+
+    @Override
+    public int TessPageIteratorBoundingBox(TessPageIterator handle, int level, IntBuffer left, IntBuffer top, IntBuffer right, IntBuffer bottom) {
+        return TessAPI1.TessPageIteratorBoundingBox(handle, level, left, top, right, bottom);
+    }
+
+    @Override
+    public int TessPageIteratorBlockType(TessPageIterator handle) {
+        return TessAPI1.TessPageIteratorBlockType(handle);
+    }
+
+    @Override
+    public Pix TessPageIteratorGetBinaryImage(TessPageIterator handle, int level) {
+        return TessAPI1.TessPageIteratorGetBinaryImage(handle, level);
+    }
+
+    @Override
+    public Pix TessPageIteratorGetImage(TessPageIterator handle, int level, int padding, Pix original_image, IntBuffer left, IntBuffer top) {
+        return TessAPI1.TessPageIteratorGetImage(handle, level, padding, original_image, left, top);
+    }
+
+    @Override
+    public int TessPageIteratorBaseline(TessPageIterator handle, int level, IntBuffer x1, IntBuffer y1, IntBuffer x2, IntBuffer y2) {
+        return TessAPI1.TessPageIteratorBaseline(handle, level, x1, y1, x2, y2);
+    }
+
+    @Override
+    public void TessPageIteratorOrientation(TessPageIterator handle, IntBuffer orientation, IntBuffer writing_direction, IntBuffer textline_order, FloatBuffer deskew_angle) {
+        TessAPI1.TessPageIteratorOrientation(handle, orientation, writing_direction, textline_order, deskew_angle);
+    }
+
+    @Override
+    public void TessPageIteratorParagraphInfo(TessPageIterator handle, IntBuffer justification, IntBuffer is_list_item, IntBuffer is_crown, IntBuffer first_line_indent) {
+        TessAPI1.TessPageIteratorParagraphInfo(handle, justification, is_list_item, is_crown, first_line_indent);
+    }
+
+    @Override
+    public void TessResultIteratorDelete(TessResultIterator handle) {
+        TessAPI1.TessResultIteratorDelete(handle);
+    }
+
+    @Override
+    public TessResultIterator TessResultIteratorCopy(TessResultIterator handle) {
+        return TessAPI1.TessResultIteratorCopy(handle);
+    }
+
+    @Override
+    public TessPageIterator TessResultIteratorGetPageIterator(TessResultIterator handle) {
+        return TessAPI1.TessResultIteratorGetPageIterator(handle);
+    }
+
+    @Override
+    public TessPageIterator TessResultIteratorGetPageIteratorConst(TessResultIterator handle) {
+        return TessAPI1.TessResultIteratorGetPageIteratorConst(handle);
+    }
+
+    @Override
+    public int TessResultIteratorNext(TessResultIterator handle, int level) {
+        return TessAPI1.TessResultIteratorNext(handle, level);
+    }
+
+    @Override
+    public Pointer TessResultIteratorGetUTF8Text(TessResultIterator handle, int level) {
+        return TessAPI1.TessResultIteratorGetUTF8Text(handle, level);
+    }
+
+    @Override
+    public float TessResultIteratorConfidence(TessResultIterator handle, int level) {
+        return TessAPI1.TessResultIteratorConfidence(handle, level);
+    }
+
+    @Override
+    public String TessResultIteratorWordRecognitionLanguage(TessResultIterator handle) {
+        return TessAPI1.TessResultIteratorWordRecognitionLanguage(handle);
+    }
+
+    @Override
+    public String TessResultIteratorWordFontAttributes(TessResultIterator handle, IntBuffer is_bold, IntBuffer is_italic, IntBuffer is_underlined, IntBuffer is_monospace, IntBuffer is_serif, IntBuffer is_smallcaps, IntBuffer pointsize, IntBuffer font_id) {
+        return TessAPI1.TessResultIteratorWordFontAttributes(handle, is_bold, is_italic, is_underlined, is_monospace, is_serif, is_smallcaps, pointsize, font_id);
+    }
+
+    @Override
+    public int TessResultIteratorWordIsFromDictionary(TessResultIterator handle) {
+        return TessAPI1.TessResultIteratorWordIsFromDictionary(handle);
+    }
+
+    @Override
+    public int TessResultIteratorWordIsNumeric(TessResultIterator handle) {
+        return TessAPI1.TessResultIteratorWordIsNumeric(handle);
+    }
+
+    @Override
+    public int TessResultIteratorSymbolIsSuperscript(TessResultIterator handle) {
+        return TessAPI1.TessResultIteratorSymbolIsSuperscript(handle);
+    }
+
+    @Override
+    public int TessResultIteratorSymbolIsSubscript(TessResultIterator handle) {
+        return TessAPI1.TessResultIteratorSymbolIsSubscript(handle);
+    }
+
+    @Override
+    public int TessResultIteratorSymbolIsDropcap(TessResultIterator handle) {
+        return TessAPI1.TessResultIteratorSymbolIsDropcap(handle);
+    }
+
+    @Override
+    public TessChoiceIterator TessResultIteratorGetChoiceIterator(TessResultIterator handle) {
+        return TessAPI1.TessResultIteratorGetChoiceIterator(handle);
+    }
+
+    @Override
+    public void TessChoiceIteratorDelete(TessChoiceIterator handle) {
+        TessAPI1.TessChoiceIteratorDelete(handle);
+    }
+
+    @Override
+    public int TessChoiceIteratorNext(TessChoiceIterator handle) {
+        return TessAPI1.TessChoiceIteratorNext(handle);
+    }
+
+    @Override
+    public String TessChoiceIteratorGetUTF8Text(TessChoiceIterator handle) {
+        return TessAPI1.TessChoiceIteratorGetUTF8Text(handle);
+    }
+
+    @Override
+    public float TessChoiceIteratorConfidence(TessChoiceIterator handle) {
+        return TessAPI1.TessChoiceIteratorConfidence(handle);
+    }
+}
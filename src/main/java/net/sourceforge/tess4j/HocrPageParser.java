@@ -0,0 +1,460 @@
+/**
+ * Copyright @ 2015 Quan Nguyen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.sourceforge.tess4j;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import net.sourceforge.tess4j.ITessAPI.TessPageIteratorLevel;
+
+/**
+ * Reads the blocks, paragraphs, lines and words of Tesseract's hOCR output
+ * into an {@link OcrPageResult}. The whole page comes out of the engine in one
+ * native call, instead of several calls per word through the result iterator.
+ * <br>
+ * <br>
+ * The UTF-8 bytes are scanned directly; only the elements Tesseract writes
+ * are recognized: <code>ocr_carea</code>, <code>ocr_par</code>, the line
+ * classes and <code>ocrx_word</code> with its <code>strong</code> and
+ * <code>em</code> font tags. hOCR gives word confidences as whole numbers and
+ * no confidence for the enclosing elements; those get the mean of their
+ * words, which is how the result iterator computes them too.
+ */
+final class HocrPageParser {
+
+    private static final byte[] CLASS = ascii("class");
+    private static final byte[] TITLE = ascii("title");
+    private static final byte[] BBOX = ascii("bbox ");
+    private static final byte[] X_WCONF = ascii("x_wconf ");
+    private static final byte[] COMMENT_START = ascii("!--");
+    private static final byte[] COMMENT_END = ascii("-->");
+    private static final byte[][] ENTITIES = {ascii("amp"), ascii("lt"), ascii("gt"), ascii("quot"), ascii("apos")};
+    private static final String ENTITY_CHARS = "&<>\"'";
+    private static final byte[][] TRACKED_TAGS = {ascii("div"), ascii("p"), ascii("span"), ascii("strong"), ascii("em")};
+    private static final byte[] STRONG = TRACKED_TAGS[3];
+    private static final byte[] EM = TRACKED_TAGS[4];
+    private static final byte[][] CLASSES = {ascii("ocr_carea"), ascii("ocr_par"), ascii("ocr_line"),
+        ascii("ocr_caption"), ascii("ocr_textfloat"), ascii("ocr_header"), ascii("ocrx_word")};
+    private static final int[] CLASS_LEVELS = {TessPageIteratorLevel.RIL_BLOCK, TessPageIteratorLevel.RIL_PARA,
+        TessPageIteratorLevel.RIL_TEXTLINE, TessPageIteratorLevel.RIL_TEXTLINE, TessPageIteratorLevel.RIL_TEXTLINE,
+        TessPageIteratorLevel.RIL_TEXTLINE, TessPageIteratorLevel.RIL_WORD};
+
+    private final byte[] hocr;
+    private final int end;
+    private final int dx;
+    private final int dy;
+    private final OcrPageResult result;
+
+    // open tags, each with the element it started or -1
+    private int[] openElements = new int[32];
+    private int depth;
+
+    // enclosing block, paragraph and line, with the sum of their word
+    // confidences
+    private final int[] enclosing = new int[TessPageIteratorLevel.RIL_WORD];
+    private final int[] enclosingDepth = new int[TessPageIteratorLevel.RIL_WORD];
+    private final long[] confidenceSum = new long[TessPageIteratorLevel.RIL_WORD];
+    private final int[] wordCount = new int[TessPageIteratorLevel.RIL_WORD];
+
+    // the word being read
+    private int wordDepth = -1;
+    private final int[] wordBox = new int[4];
+    private int wordConfidence;
+    private int wordFlags;
+    private byte[] wordText = new byte[64];
+    private int wordLength;
+
+    private HocrPageParser(byte[] hocr, int length, int dx, int dy, OcrPageResult result) {
+        this.hocr = hocr;
+        this.end = length;
+        this.dx = dx;
+        this.dy = dy;
+        this.result = result;
+        Arrays.fill(enclosing, -1);
+    }
+
+    /**
+     * Appends the elements of an hOCR page, down to words.
+     *
+     * @param hocr UTF-8 hOCR text
+     * @param length number of bytes of text
+     * @param dx added to the x coordinates of the bounding boxes
+     * @param dy added to the y coordinates of the bounding boxes
+     * @param result receives the elements
+     */
+    static void parse(byte[] hocr, int length, int dx, int dy, OcrPageResult result) {
+        new HocrPageParser(hocr, length, dx, dy, result).parse();
+    }
+
+    private void parse() {
+        int i = 0;
+        while (i < end) {
+            int lt = indexOf(hocr, i, end, (byte) '<');
+            if (lt < 0) {
+                lt = end;
+            }
+            if (wordDepth >= 0 && lt > i) {
+                appendText(i, lt);
+            }
+            if (lt == end) {
+                break;
+            }
+            i = parseTag(lt + 1);
+        }
+    }
+
+    /**
+     * @param i first byte after the <code>&lt;</code>
+     * @return first byte after the tag
+     */
+    private int parseTag(int i) {
+        if (i < end && hocr[i] == '!') {
+            if (startsWith(hocr, i, end, COMMENT_START)) {
+                int close = indexOf(hocr, i + 3, end, COMMENT_END);
+                return close < 0 ? end : close + 3;
+            }
+            return skipTag(i);
+        }
+        if (i < end && hocr[i] == '?') {
+            return skipTag(i);
+        }
+
+        boolean closing = i < end && hocr[i] == '/';
+        if (closing) {
+            i++;
+        }
+        int nameStart = i;
+        while (i < end && isNameByte(hocr[i])) {
+            i++;
+        }
+        int nameEnd = i;
+        int tagEnd = skipTag(i);
+        if (!isTracked(nameStart, nameEnd)) {
+            return tagEnd;
+        }
+        if (closing) {
+            closeTag();
+            return tagEnd;
+        }
+        if (tagEnd - 2 >= i && hocr[tagEnd - 2] == '/') {
+            return tagEnd; // self-closing
+        }
+
+        if (wordDepth >= 0) {
+            if (equals(hocr, nameStart, nameEnd, STRONG)) {
+                wordFlags |= OcrPageResult.FLAG_BOLD;
+            } else if (equals(hocr, nameStart, nameEnd, EM)) {
+                wordFlags |= OcrPageResult.FLAG_ITALIC;
+            }
+            push(-1);
+            return tagEnd;
+        }
+
+        int level = classLevel(i, tagEnd);
+        if (level < 0) {
+            push(-1);
+            return tagEnd;
+        }
+
+        int[] box = wordBox;
+        box[0] = box[1] = box[2] = box[3] = 0;
+        int confidence = readTitle(i, tagEnd, box);
+        if (level == TessPageIteratorLevel.RIL_WORD) {
+            wordDepth = depth;
+            wordConfidence = confidence;
+            wordFlags = 0;
+            wordLength = 0;
+            push(-1);
+            return tagEnd;
+        }
+
+        int index = result.size();
+        result.add(level, box[0] + dx, box[1] + dy, box[2] + dx, box[3] + dy, 0f, 0, null);
+        enclosing[level] = index;
+        enclosingDepth[level] = depth;
+        confidenceSum[level] = 0;
+        wordCount[level] = 0;
+        push(index);
+        return tagEnd;
+    }
+
+    private void closeTag() {
+        if (depth == 0) {
+            return; // unbalanced
+        }
+        depth--;
+        if (depth == wordDepth) {
+            result.add(TessPageIteratorLevel.RIL_WORD, wordBox[0] + dx, wordBox[1] + dy, wordBox[2] + dx, wordBox[3] + dy,
+                    wordConfidence, wordFlags, wordText, 0, wordLength);
+            for (int level = 0; level < enclosing.length; level++) {
+                if (enclosing[level] >= 0) {
+                    confidenceSum[level] += wordConfidence;
+                    wordCount[level]++;
+                }
+            }
+            wordDepth = -1;
+            return;
+        }
+
+        int index = openElements[depth];
+        if (index < 0) {
+            return;
+        }
+        for (int level = 0; level < enclosing.length; level++) {
+            if (enclosing[level] == index && enclosingDepth[level] == depth) {
+                if (wordCount[level] > 0) {
+                    result.setConfidence(index, (float) confidenceSum[level] / wordCount[level]);
+                }
+                enclosing[level] = -1;
+            }
+        }
+    }
+
+    private void push(int index) {
+        if (depth == openElements.length) {
+            openElements = Arrays.copyOf(openElements, depth * 2);
+        }
+        openElements[depth++] = index;
+    }
+
+    /**
+     * Finds the level of an element by the value of its class attribute.
+     *
+     * @return the TessPageIteratorLevel, or -1 if not an element of interest
+     */
+    private int classLevel(int from, int to) {
+        int value = attributeValue(from, to, CLASS);
+        if (value < 0) {
+            return -1;
+        }
+        int valueEnd = indexOf(hocr, value, to, hocr[value - 1]);
+        for (int c = 0; c < CLASSES.length; c++) {
+            if (equals(hocr, value, valueEnd, CLASSES[c])) {
+                return CLASS_LEVELS[c];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Reads the bounding box and word confidence from the title attribute.
+     *
+     * @return the word confidence, or 0 if none
+     */
+    private int readTitle(int from, int to, int[] box) {
+        int value = attributeValue(from, to, TITLE);
+        if (value < 0) {
+            return 0;
+        }
+        int valueEnd = indexOf(hocr, value, to, hocr[value - 1]);
+        int bbox = indexOf(hocr, value, valueEnd, BBOX);
+        if (bbox >= 0) {
+            int i = bbox + BBOX.length;
+            for (int k = 0; k < 4; k++) {
+                i = skipSpaces(i, valueEnd);
+                int start = i;
+                box[k] = 0;
+                while (i < valueEnd && hocr[i] >= '0' && hocr[i] <= '9') {
+                    box[k] = box[k] * 10 + hocr[i++] - '0';
+                }
+                if (i == start) {
+                    break;
+                }
+            }
+        }
+        int conf = indexOf(hocr, value, valueEnd, X_WCONF);
+        int confidence = 0;
+        if (conf >= 0) {
+            for (int i = skipSpaces(conf + X_WCONF.length, valueEnd); i < valueEnd && hocr[i] >= '0' && hocr[i] <= '9'; i++) {
+                confidence = confidence * 10 + hocr[i] - '0';
+            }
+        }
+        return confidence;
+    }
+
+    /**
+     * @return start of the quoted value of an attribute, or -1 if absent
+     */
+    private int attributeValue(int from, int to, byte[] name) {
+        int i = from;
+        while (i < to) {
+            i = skipSpaces(i, to);
+            int nameStart = i;
+            while (i < to && isNameByte(hocr[i])) {
+                i++;
+            }
+            int nameEnd = i;
+            i = skipSpaces(i, to);
+            if (i >= to || hocr[i] != '=') {
+                if (i == nameStart) {
+                    i++; // not an attribute, e.g. the closing '/'
+                }
+                continue;
+            }
+            i = skipSpaces(i + 1, to);
+            if (i >= to) {
+                break;
+            }
+            byte quote = hocr[i];
+            if (quote != '\'' && quote != '"') {
+                continue; // unquoted values are not written by Tesseract
+            }
+            int valueEnd = indexOf(hocr, i + 1, to, quote);
+            if (valueEnd < 0) {
+                break;
+            }
+            if (equals(hocr, nameStart, nameEnd, name)) {
+                return i + 1;
+            }
+            i = valueEnd + 1;
+        }
+        return -1;
+    }
+
+    /**
+     * @return first byte after the <code>&gt;</code> ending the tag,
+     * skipping quoted attribute values
+     */
+    private int skipTag(int i) {
+        byte quote = 0;
+        for (; i < end; i++) {
+            byte b = hocr[i];
+            if (quote != 0) {
+                if (b == quote) {
+                    quote = 0;
+                }
+            } else if (b == '\'' || b == '"') {
+                quote = b;
+            } else if (b == '>') {
+                return i + 1;
+            }
+        }
+        return end;
+    }
+
+    private boolean isTracked(int nameStart, int nameEnd) {
+        for (byte[] tag : TRACKED_TAGS) {
+            if (equals(hocr, nameStart, nameEnd, tag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Appends text of the current word, replacing character references.
+     */
+    private void appendText(int from, int to) {
+        int i = from;
+        while (i < to) {
+            int amp = indexOf(hocr, i, to, (byte) '&');
+            int plainEnd = amp < 0 ? to : amp;
+            append(hocr, i, plainEnd - i);
+            if (amp < 0) {
+                break;
+            }
+            int semicolon = indexOf(hocr, amp + 1, Math.min(to, amp + 12), (byte) ';');
+            int codePoint = semicolon < 0 ? -1 : characterReference(amp + 1, semicolon);
+            if (codePoint < 0) {
+                append(hocr, amp, 1);
+                i = amp + 1;
+            } else {
+                byte[] utf8 = new String(Character.toChars(codePoint)).getBytes(StandardCharsets.UTF_8);
+                append(utf8, 0, utf8.length);
+                i = semicolon + 1;
+            }
+        }
+    }
+
+    /**
+     * @return the code point of a character reference without its
+     * <code>&amp;</code> and <code>;</code>, or -1 if unknown
+     */
+    private int characterReference(int from, int to) {
+        for (int e = 0; e < ENTITIES.length; e++) {
+            if (equals(hocr, from, to, ENTITIES[e])) {
+                return ENTITY_CHARS.charAt(e);
+            }
+        }
+        if (to - from > 1 && hocr[from] == '#') {
+            boolean hex = hocr[from + 1] == 'x' || hocr[from + 1] == 'X';
+            try {
+                int codePoint = Integer.parseInt(new String(hocr, from + (hex ? 2 : 1), to - from - (hex ? 2 : 1), StandardCharsets.US_ASCII), hex ? 16 : 10);
+                return Character.isValidCodePoint(codePoint) ? codePoint : -1;
+            } catch (NumberFormatException nfe) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    private void append(byte[] bytes, int offset, int length) {
+        if (wordLength + length > wordText.length) {
+            wordText = Arrays.copyOf(wordText, Math.max(wordText.length * 2, wordLength + length));
+        }
+        System.arraycopy(bytes, offset, wordText, wordLength, length);
+        wordLength += length;
+    }
+
+    private int skipSpaces(int i, int to) {
+        while (i < to && (hocr[i] == ' ' || hocr[i] == '\t' || hocr[i] == '\n' || hocr[i] == '\r')) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isNameByte(byte b) {
+        return b >= 'a' && b <= 'z' || b >= 'A' && b <= 'Z' || b >= '0' && b <= '9' || b == '_' || b == '-' || b == ':';
+    }
+
+    private static int indexOf(byte[] a, int from, int to, byte b) {
+        for (int i = from; i < to; i++) {
+            if (a[i] == b) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int indexOf(byte[] a, int from, int to, byte[] pattern) {
+        for (int i = from; i + pattern.length <= to; i++) {
+            if (startsWith(a, i, to, pattern)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean startsWith(byte[] a, int from, int to, byte[] prefix) {
+        if (to - from < prefix.length) {
+            return false;
+        }
+        for (int k = 0; k < prefix.length; k++) {
+            if (a[from + k] != prefix[k]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean equals(byte[] a, int from, int to, byte[] b) {
+        return to - from == b.length && startsWith(a, from, to, b);
+    }
+
+    private static byte[] ascii(String s) {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+}
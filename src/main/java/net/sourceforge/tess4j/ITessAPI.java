@@ -505,6 +505,25 @@ public interface ITessAPI {
          */
         public EANYCODE_CHAR[] text = new EANYCODE_CHAR[1];
 
+        /**
+         * Reads the progress directly from native memory, without reading the
+         * rest of the structure. Safe to call while the OCR is running.
+         *
+         * @return percent complete (0-100)
+         */
+        public int readProgress() {
+            return getPointer().getShort(fieldOffset("progress"));
+        }
+
+        /**
+         * Reads the <code>ocr_alive</code> flag directly from native memory.
+         *
+         * @return true if the OCR engine has reported progress
+         */
+        public boolean readOcrAlive() {
+            return getPointer().getByte(fieldOffset("ocr_alive")) == TRUE;
+        }
+
         /**
          * Gets Field Order.
          *
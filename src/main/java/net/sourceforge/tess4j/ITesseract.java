@@ -17,8 +17,12 @@ package net.sourceforge.tess4j;
 
 import java.awt.Rectangle;
 import java.awt.image.BufferedImage;
+import java.io.OutputStream;
+import java.io.Writer;
 import java.nio.ByteBuffer;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * An interface represents common OCR methods.
@@ -132,6 +136,98 @@ public interface ITesseract {
      */
     String doOCR(BufferedImage bi, Rectangle rect) throws TesseractException;
 
+    /**
+     * Performs OCR operation on several regions of an image. The image is
+     * uploaded to the engine once and each region is recognized in turn.
+     *
+     * @param bi a buffered image
+     * @param rects the regions to be recognized. A rectangle of zero
+     * dimension or <code>null</code> indicates the whole image.
+     * @return the recognized text of each region, in the order of the regions
+     * @throws TesseractException
+     */
+    List<String> doOCR(BufferedImage bi, List<Rectangle> rects) throws TesseractException;
+
+    /**
+     * Performs OCR operation on several regions of an image, each with its
+     * own page segmentation mode and variables. The image is uploaded to the
+     * engine once; the settings of a region are applied before it is
+     * recognized and restored afterwards.
+     *
+     * @param bi a buffered image
+     * @param regions the regions to be recognized
+     * @return the recognized text of each region, in the order of the regions
+     * @throws TesseractException
+     */
+    List<String> doOCRRegions(BufferedImage bi, List<OcrRegion> regions) throws TesseractException;
+
+    /**
+     * Recognizes an image and gets the text, confidence, bounding box,
+     * baseline and, at word or symbol level, the font attributes of its
+     * elements.
+     *
+     * @param bi a buffered image
+     * @param pageIteratorLevel TessPageIteratorLevel enum, e.g.,
+     * <code>RIL_WORD</code>
+     * @return the elements of the image at the given level
+     * @throws TesseractException
+     */
+    List<Word> getWords(BufferedImage bi, int pageIteratorLevel) throws TesseractException;
+
+    /**
+     * Recognizes an image and gets its blocks, paragraphs, lines and so on
+     * down to the given level in a compact columnar form, for pages with many
+     * elements.
+     *
+     * @param bi a buffered image
+     * @param pageIteratorLevel TessPageIteratorLevel enum, e.g.,
+     * <code>RIL_WORD</code>; the finest level collected
+     * @return the elements of the page
+     * @throws TesseractException
+     */
+    OcrPageResult getPageResult(BufferedImage bi, int pageIteratorLevel) throws TesseractException;
+
+    /**
+     * Recognizes an image once and gets the results in several formats.
+     *
+     * @param bi a buffered image
+     * @param rect the bounding rectangle defines the region of the image to be
+     * recognized. A rectangle of zero dimension or <code>null</code> indicates
+     * the whole image.
+     * @param formats the text formats to get
+     * @param wordConfidences true to get the confidence of each word as well
+     * @return the results
+     * @throws TesseractException
+     */
+    OcrOutput getOutput(BufferedImage bi, Rectangle rect, Set<RenderedFormat> formats, boolean wordConfidences) throws TesseractException;
+
+    /**
+     * Recognizes an image and gets only the mean confidence of its words,
+     * without building its text, e.g. to decide whether a page is worth
+     * keeping or needs another pass.
+     *
+     * @param bi a buffered image
+     * @param rect the bounding rectangle defines the region of the image to be
+     * recognized. A rectangle of zero dimension or <code>null</code> indicates
+     * the whole image.
+     * @return the mean word confidence, 0 to 100
+     * @throws TesseractException
+     */
+    int getMeanConfidence(BufferedImage bi, Rectangle rect) throws TesseractException;
+
+    /**
+     * Recognizes an image and gets only the confidence of each of its words,
+     * without building its text.
+     *
+     * @param bi a buffered image
+     * @param rect the bounding rectangle defines the region of the image to be
+     * recognized. A rectangle of zero dimension or <code>null</code> indicates
+     * the whole image.
+     * @return the word confidences in reading order, 0 to 100
+     * @throws TesseractException
+     */
+    int[] getWordConfidences(BufferedImage bi, Rectangle rect) throws TesseractException;
+
     /**
      * Performs OCR operation.
      *
@@ -158,6 +254,102 @@ public interface ITesseract {
      */
     String doOCR(List<BufferedImage> imageList, String filename, Rectangle rect) throws TesseractException;
 
+    /**
+     * Performs OCR operation that can be cancelled. The token is checked by
+     * the engine during recognition.
+     *
+     * @param bi a buffered image
+     * @param rect the bounding rectangle defines the region of the image to be
+     * recognized. A rectangle of zero dimension or <code>null</code> indicates
+     * the whole image.
+     * @param token cancellation token, e.g., with a deadline; may be
+     * <code>null</code>
+     * @return the recognized text
+     * @throws TesseractException if cancelled or the recognition failed
+     */
+    String doOCR(BufferedImage bi, Rectangle rect, CancellationToken token) throws TesseractException;
+
+    /**
+     * Performs OCR operation that can be cancelled. The token is checked by
+     * the engine during recognition.
+     *
+     * @param imageList a list of <code>IIOImage</code> objects
+     * @param filename input file name. Needed only for training and reading a
+     * UNLV zone file.
+     * @param rect the bounding rectangle defines the region of the image to be
+     * recognized. A rectangle of zero dimension or <code>null</code> indicates
+     * the whole image.
+     * @param token cancellation token, e.g., with a deadline; may be
+     * <code>null</code>
+     * @return the recognized text
+     * @throws TesseractException if cancelled or the recognition failed
+     */
+    String doOCR(List<BufferedImage> imageList, String filename, Rectangle rect, CancellationToken token) throws TesseractException;
+
+    /**
+     * Performs OCR operation on the pages of a document and writes the text of
+     * each page as soon as it is recognized, so memory use does not grow with
+     * the number of pages.
+     *
+     * @param imageList a list of <code>BufferedImage</code>s
+     * @param filename input file name. Needed only for training and reading a
+     * UNLV zone file.
+     * @param rect the bounding rectangle defines the region of the image to be
+     * recognized. A rectangle of zero dimension or <code>null</code> indicates
+     * the whole image.
+     * @param out the destination; not closed
+     * @throws TesseractException
+     */
+    void writeOCR(List<BufferedImage> imageList, String filename, Rectangle rect, Writer out) throws TesseractException;
+
+    /**
+     * Performs OCR operation on the pages of a document and writes the text of
+     * each page, UTF-8 encoded, as soon as it is recognized.
+     *
+     * @param imageList a list of <code>BufferedImage</code>s
+     * @param filename input file name. Needed only for training and reading a
+     * UNLV zone file.
+     * @param rect the bounding rectangle defines the region of the image to be
+     * recognized. A rectangle of zero dimension or <code>null</code> indicates
+     * the whole image.
+     * @param out the destination; flushed but not closed
+     * @throws TesseractException
+     */
+    void writeOCR(List<BufferedImage> imageList, String filename, Rectangle rect, OutputStream out) throws TesseractException;
+
+    /**
+     * Performs OCR operation on the pages of a document read on demand. The
+     * source is not closed.
+     *
+     * @param pages the pages
+     * @param filename input file name. Needed only for training and reading a
+     * UNLV zone file.
+     * @param rect the bounding rectangle defines the region of the image to be
+     * recognized. A rectangle of zero dimension or <code>null</code> indicates
+     * the whole image.
+     * @return the recognized text
+     * @throws TesseractException
+     */
+    String doOCR(OcrPageSource pages, String filename, Rectangle rect) throws TesseractException;
+
+    /**
+     * Performs OCR operation on the pages of a document read on demand and
+     * writes the text of each page as soon as it is recognized. With a page
+     * executor, only a few pages per thread are read ahead, so memory use
+     * depends on the parallelism rather than the number of pages. The source
+     * is not closed.
+     *
+     * @param pages the pages
+     * @param filename input file name. Needed only for training and reading a
+     * UNLV zone file.
+     * @param rect the bounding rectangle defines the region of the image to be
+     * recognized. A rectangle of zero dimension or <code>null</code> indicates
+     * the whole image.
+     * @param out the destination; not closed
+     * @throws TesseractException
+     */
+    void writeOCR(OcrPageSource pages, String filename, Rectangle rect, Writer out) throws TesseractException;
+
     /**
      * Performs OCR operation. Use <code>SetImage</code>, (optionally)
      * <code>SetRectangle</code>, and one or more of the <code>Get*Text</code>
@@ -196,6 +388,81 @@ public interface ITesseract {
      */
     String doOCR(int xsize, int ysize, ByteBuffer buf, String filename, Rectangle rect, int bpp) throws TesseractException;
 
+    /**
+     * Performs OCR operation asynchronously.
+     *
+     * @param bi a buffered image
+     * @return a future of the recognized text
+     */
+    CompletableFuture<String> doOCRAsync(BufferedImage bi);
+
+    /**
+     * Performs OCR operation asynchronously.
+     *
+     * @param bi a buffered image
+     * @param rect the bounding rectangle defines the region of the image to be
+     * recognized. A rectangle of zero dimension or <code>null</code> indicates
+     * the whole image.
+     * @return a future of the recognized text
+     */
+    CompletableFuture<String> doOCRAsync(BufferedImage bi, Rectangle rect);
+
+    /**
+     * Performs OCR operation asynchronously.
+     *
+     * @param imageList a list of <code>IIOImage</code> objects
+     * @param rect the bounding rectangle defines the region of the image to be
+     * recognized. A rectangle of zero dimension or <code>null</code> indicates
+     * the whole image.
+     * @return a future of the recognized text
+     */
+    CompletableFuture<String> doOCRAsync(List<BufferedImage> imageList, Rectangle rect);
+
+    /**
+     * Performs OCR operation asynchronously.
+     *
+     * @param imageList a list of <code>IIOImage</code> objects
+     * @param filename input file name. Needed only for training and reading a
+     * UNLV zone file.
+     * @param rect the bounding rectangle defines the region of the image to be
+     * recognized. A rectangle of zero dimension or <code>null</code> indicates
+     * the whole image.
+     * @return a future of the recognized text
+     */
+    CompletableFuture<String> doOCRAsync(List<BufferedImage> imageList, String filename, Rectangle rect);
+
+    /**
+     * Performs OCR operation asynchronously.
+     *
+     * @param xsize width of image
+     * @param ysize height of image
+     * @param buf pixel data
+     * @param rect the bounding rectangle defines the region of the image to be
+     * recognized. A rectangle of zero dimension or <code>null</code> indicates
+     * the whole image.
+     * @param bpp bits per pixel, represents the bit depth of the image, with 1
+     * for binary bitmap, 8 for gray, and 24 for color RGB.
+     * @return a future of the recognized text
+     */
+    CompletableFuture<String> doOCRAsync(int xsize, int ysize, ByteBuffer buf, Rectangle rect, int bpp);
+
+    /**
+     * Performs OCR operation asynchronously.
+     *
+     * @param xsize width of image
+     * @param ysize height of image
+     * @param buf pixel data
+     * @param filename input file name. Needed only for training and reading a
+     * UNLV zone file.
+     * @param rect the bounding rectangle defines the region of the image to be
+     * recognized. A rectangle of zero dimension or <code>null</code> indicates
+     * the whole image.
+     * @param bpp bits per pixel, represents the bit depth of the image, with 1
+     * for binary bitmap, 8 for gray, and 24 for color RGB.
+     * @return a future of the recognized text
+     */
+    CompletableFuture<String> doOCRAsync(int xsize, int ysize, ByteBuffer buf, String filename, Rectangle rect, int bpp);
+
     /**
      * Sets tessdata path.
      *
@@ -0,0 +1,86 @@
+/**
+ * Copyright @ 2015 Quan Nguyen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.sourceforge.tess4j;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+/**
+ * Decodes the pages of an image file, e.g., a multi-page TIFF, one at a time.
+ * The file is read forward only, so decoded pages are not retained.
+ */
+public class ImageFilePageSource implements OcrPageSource {
+
+    private final ImageInputStream iis;
+    private final ImageReader reader;
+    private int pageIndex;
+    private boolean done;
+
+    /**
+     * Opens an image file.
+     *
+     * @param imageFile the file
+     * @throws IOException if the file cannot be opened or its format is not
+     * supported
+     */
+    public ImageFilePageSource(File imageFile) throws IOException {
+        iis = ImageIO.createImageInputStream(imageFile);
+        if (iis == null) {
+            throw new IOException("Cannot open " + imageFile);
+        }
+        Iterator<ImageReader> readers = ImageIO.getImageReaders(iis);
+        if (!readers.hasNext()) {
+            iis.close();
+            throw new IOException("Unsupported image format: " + imageFile.getName());
+        }
+        reader = readers.next();
+        reader.setInput(iis, true, true);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public BufferedImage nextPage() throws IOException {
+        if (done) {
+            return null;
+        }
+        try {
+            return reader.read(pageIndex++);
+        } catch (IndexOutOfBoundsException e) {
+            // past the last page; the reader cannot count pages when reading forward only
+            done = true;
+            return null;
+        }
+    }
+
+    /**
+     * Releases the reader and closes the file.
+     *
+     * @throws IOException
+     */
+    @Override
+    public void close() throws IOException {
+        reader.dispose();
+        iis.close();
+    }
+}
@@ -0,0 +1,773 @@
+/**
+ * Copyright @ 2015 Quan Nguyen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.sourceforge.tess4j;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * A persistent cache of recognized text in a local directory, to be used as
+ * the second tier of an {@link OcrResultCache}. Results survive restarts and
+ * are shared by all processes opening the same directory.<br>
+ * <br>
+ * Results are appended to a log file; a memory-mapped open-addressing hash
+ * table indexes the latest record of each key. Lookups read the mapped index
+ * and log without taking any lock; a record is used only if its checksum and
+ * full key match, so a lookup racing a writer at worst misses. Writers of all
+ * processes are serialized by a lock on <code>ocrcache.lock</code>, which also
+ * holds the current generation of the files; instances opening the same
+ * directory within a JVM first serialize on a shared monitor, as file locks
+ * are held on behalf of the whole JVM.<br>
+ * <br>
+ * When the log outgrows the size bound or the index fills up, a background
+ * thread compacts the newest live records into the files of the next
+ * generation. Other processes switch over on their next lookup.
+ */
+public class OcrDiskCache implements AutoCloseable {
+
+    /**
+     * Default bound for the size of the log, 256 MB.
+     */
+    public static final long DEFAULT_MAX_BYTES = 1L << 28;
+    /**
+     * Largest bound for the size of the log, 1 GB; the log is mapped as a
+     * single buffer.
+     */
+    public static final long MAX_BYTES_LIMIT = 1L << 30;
+
+    private static final String FILE_PREFIX = "ocrcache-";
+    private static final int LOG_MAGIC = 0x54344A4C;
+    private static final int INDEX_MAGIC = 0x54344A49;
+    private static final int VERSION = 1;
+    // log: magic, version
+    private static final int LOG_HEADER = 8;
+    // index: magic, version, slot count, entry count
+    private static final int INDEX_HEADER = 16;
+    // slot: key tag, 0 when empty; record offset
+    private static final int SLOT_SIZE = 16;
+    // record: length, CRC-32 of the rest, pixel hash, width, height, then
+    // fingerprint and text as length-prefixed UTF-8
+    private static final int RECORD_HEADER = 8;
+    private static final int MIN_INDEX_SLOTS = 1 << 12;
+    // writer monitors by canonical directory path, shared by the instances
+    // of this JVM
+    private static final ConcurrentMap<String, Object> WRITE_LOCKS = new ConcurrentHashMap<String, Object>();
+
+    private final File directory;
+    private final File lockFile;
+    private final long maxBytes;
+    // current generation, shared by all processes
+    private final MappedByteBuffer generation;
+    private volatile Segment segment;
+    private final Object writeLock;
+    private final AtomicBoolean compacting = new AtomicBoolean();
+    private final ExecutorService compactor;
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private volatile boolean closed;
+
+    private final static Logger logger = Logger.getLogger(OcrDiskCache.class.getName());
+
+    /**
+     * Opens or creates a cache of at most {@link #DEFAULT_MAX_BYTES}.
+     *
+     * @param directory the cache directory; created if missing
+     * @throws IOException if the cache files cannot be opened
+     */
+    public OcrDiskCache(File directory) throws IOException {
+        this(directory, DEFAULT_MAX_BYTES);
+    }
+
+    /**
+     * Opens or creates a cache.
+     *
+     * @param directory the cache directory; created if missing
+     * @param maxBytes bound for the size of the log, up to
+     * {@link #MAX_BYTES_LIMIT}; compaction keeps the newest records filling
+     * half of it
+     * @throws IOException if the cache files cannot be opened
+     */
+    public OcrDiskCache(File directory, long maxBytes) throws IOException {
+        if (maxBytes <= 0 || maxBytes > MAX_BYTES_LIMIT) {
+            throw new IllegalArgumentException("maxBytes must be positive and at most " + MAX_BYTES_LIMIT);
+        }
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Cannot create cache directory " + directory);
+        }
+        this.directory = directory;
+        this.lockFile = new File(directory, "ocrcache.lock");
+        this.maxBytes = maxBytes;
+        this.writeLock = getWriteLock(directory);
+
+        synchronized (writeLock) {
+            FileChannel channel = openLockChannel();
+            try {
+                FileLock lock = channel.lock();
+                try {
+                    // a new lock file is extended with zeros: generation 0
+                    generation = channel.map(MapMode.READ_WRITE, 0, 8);
+                    long gen = generation.getLong(0);
+                    if (!getLogFile(gen).exists() || !getIndexFile(gen).exists()) {
+                        createLog(getLogFile(gen)).close();
+                        createIndex(getIndexFile(gen), MIN_INDEX_SLOTS);
+                    }
+                    segment = new Segment(gen);
+                } finally {
+                    lock.release();
+                }
+            } finally {
+                channel.close();
+            }
+        }
+
+        compactor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "tess4j-cache-compactor");
+                t.setDaemon(true);
+                return t;
+            }
+        });
+    }
+
+    /**
+     * Looks up the text recognized for a key. Does not block.
+     *
+     * @param key image and configuration
+     * @return the text, or <code>null</code> if not cached or the cache cannot
+     * be read
+     */
+    public String get(OcrResultCache.Key key) {
+        String text = null;
+        if (!closed) {
+            try {
+                text = lookup(currentSegment(), key);
+            } catch (IOException ioe) {
+                logger.log(Level.WARNING, ioe.getMessage(), ioe);
+            }
+        }
+        if (text == null) {
+            missCount.incrementAndGet();
+        } else {
+            hitCount.incrementAndGet();
+        }
+        return text;
+    }
+
+    /**
+     * Stores the text recognized for a key. Waits for the writers of other
+     * threads and processes; failures are logged and otherwise ignored.
+     *
+     * @param key image and configuration
+     * @param text the recognized text
+     */
+    public void put(OcrResultCache.Key key, String text) {
+        if (closed) {
+            return;
+        }
+        byte[] record = encode(key, text);
+        if (record.length > maxBytes / 2) {
+            // would not survive the next compaction
+            return;
+        }
+
+        boolean full = false;
+        try {
+            synchronized (writeLock) {
+                FileChannel channel = openLockChannel();
+                try {
+                    FileLock lock = channel.lock();
+                    try {
+                        Segment seg = currentSegment();
+                        long offset = append(seg, record);
+                        full = offset < 0 || !insert(seg, key, offset) || needsCompaction(seg);
+                    } finally {
+                        lock.release();
+                    }
+                } finally {
+                    channel.close();
+                }
+            }
+        } catch (IOException ioe) {
+            logger.log(Level.WARNING, ioe.getMessage(), ioe);
+        }
+
+        if (full) {
+            compactInBackground();
+        }
+    }
+
+    /**
+     * Rewrites the live records into the files of the next generation,
+     * keeping the newest records within half the size bound. Lookups carry on
+     * meanwhile; writers wait.
+     *
+     * @throws IOException if the files cannot be written
+     */
+    public void compact() throws IOException {
+        compact(true);
+    }
+
+    private void compactInBackground() {
+        if (closed || !compacting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            compactor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        compact(false);
+                    } catch (IOException ioe) {
+                        logger.log(Level.WARNING, ioe.getMessage(), ioe);
+                    } finally {
+                        compacting.set(false);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException ree) {
+            // closed meanwhile
+            compacting.set(false);
+        }
+    }
+
+    private void compact(boolean force) throws IOException {
+        synchronized (writeLock) {
+            FileChannel channel = openLockChannel();
+            try {
+                FileLock lock = channel.lock();
+                try {
+                    Segment seg = currentSegment();
+                    // another process may have compacted already
+                    if (force || needsCompaction(seg)) {
+                        rewrite(seg);
+                    }
+                } finally {
+                    lock.release();
+                }
+            } finally {
+                channel.close();
+            }
+        }
+    }
+
+    /**
+     * @return the number of cached entries
+     * @throws IOException if the cache cannot be read
+     */
+    public int size() throws IOException {
+        return currentSegment().index.getInt(12);
+    }
+
+    /**
+     * @return the number of lookups that found an entry
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * @return the number of lookups that found no entry
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * Stops background compaction, waiting for a running one to finish. The
+     * files stay in place for the next opening.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        compactor.shutdown();
+        try {
+            compactor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Gets the monitor serializing the writers of a directory within the JVM.
+     * A second file lock on the same file would throw
+     * <code>OverlappingFileLockException</code> instead of waiting.
+     */
+    private static Object getWriteLock(File directory) throws IOException {
+        String path = directory.getCanonicalPath();
+        Object lock = WRITE_LOCKS.get(path);
+        if (lock == null) {
+            Object created = new Object();
+            lock = WRITE_LOCKS.putIfAbsent(path, created);
+            if (lock == null) {
+                lock = created;
+            }
+        }
+        return lock;
+    }
+
+    private FileChannel openLockChannel() throws IOException {
+        return FileChannel.open(lockFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    private File getLogFile(long gen) {
+        return new File(directory, FILE_PREFIX + gen + ".log");
+    }
+
+    private File getIndexFile(long gen) {
+        return new File(directory, FILE_PREFIX + gen + ".idx");
+    }
+
+    /**
+     * Gets the files of the current generation, switching over if another
+     * process has compacted.
+     */
+    private Segment currentSegment() throws IOException {
+        Segment seg = segment;
+        if (generation.getLong(0) != seg.generation) {
+            synchronized (this) {
+                seg = segment;
+                long gen = generation.getLong(0);
+                if (gen != seg.generation) {
+                    seg = new Segment(gen);
+                    segment = seg;
+                }
+            }
+        }
+        return seg;
+    }
+
+    private static long tag(OcrResultCache.Key key) {
+        return tag(key.hash1, key.hash2, key.width, key.height, key.fingerprint);
+    }
+
+    private static long tag(long hash1, long hash2, int width, int height, String fingerprint) {
+        long h = hash1 ^ Long.rotateLeft(hash2, 23);
+        h ^= (((long) width << 32) | (height & 0xFFFFFFFFL)) * 0x9E3779B97F4A7C15L;
+        h ^= fingerprint.hashCode();
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return h == 0 ? 1 : h;
+    }
+
+    private String lookup(Segment seg, OcrResultCache.Key key) throws IOException {
+        long tag = tag(key);
+        int mask = seg.slots - 1;
+        int i = (int) tag & mask;
+        for (int n = 0; n < seg.slots; n++, i = (i + 1) & mask) {
+            int pos = INDEX_HEADER + i * SLOT_SIZE;
+            long slotTag = seg.index.getLong(pos);
+            if (slotTag == 0) {
+                return null;
+            }
+            if (slotTag == tag) {
+                String text = read(seg, seg.index.getLong(pos + 8), key);
+                if (text != null) {
+                    return text;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Points the slot of a key at a new record. Called with the file lock
+     * held.
+     *
+     * @return false if the index is full
+     */
+    private boolean insert(Segment seg, OcrResultCache.Key key, long offset) throws IOException {
+        long tag = tag(key);
+        int mask = seg.slots - 1;
+        int i = (int) tag & mask;
+        for (int n = 0; n < seg.slots; n++, i = (i + 1) & mask) {
+            int pos = INDEX_HEADER + i * SLOT_SIZE;
+            long slotTag = seg.index.getLong(pos);
+            if (slotTag == 0) {
+                // offset first: a reader seeing the tag finds a valid record
+                seg.index.putLong(pos + 8, offset);
+                seg.index.putLong(pos, tag);
+                seg.index.putInt(12, seg.index.getInt(12) + 1);
+                return true;
+            }
+            if (slotTag == tag && read(seg, seg.index.getLong(pos + 8), key) != null) {
+                seg.index.putLong(pos + 8, offset);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean needsCompaction(Segment seg) {
+        return seg.logFile.length() > maxBytes || seg.index.getInt(12) > seg.slots / 4 * 3;
+    }
+
+    private static byte[] encode(OcrResultCache.Key key, String text) {
+        byte[] fingerprint = key.fingerprint.getBytes(StandardCharsets.UTF_8);
+        byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+        int length = RECORD_HEADER + 24 + 4 + fingerprint.length + 4 + utf8.length;
+        ByteBuffer buf = ByteBuffer.allocate(length);
+        buf.putInt(length);
+        buf.putInt(0);
+        buf.putLong(key.hash1);
+        buf.putLong(key.hash2);
+        buf.putInt(key.width);
+        buf.putInt(key.height);
+        buf.putInt(fingerprint.length);
+        buf.put(fingerprint);
+        buf.putInt(utf8.length);
+        buf.put(utf8);
+        CRC32 crc = new CRC32();
+        crc.update(buf.array(), RECORD_HEADER, length - RECORD_HEADER);
+        buf.putInt(4, (int) crc.getValue());
+        return buf.array();
+    }
+
+    /**
+     * Checks the record at an offset.
+     *
+     * @return the whole record, positioned after its header, or
+     * <code>null</code> if there is no intact record
+     */
+    private static ByteBuffer record(Segment seg, long offset) throws IOException {
+        if (offset < LOG_HEADER) {
+            return null;
+        }
+        ByteBuffer header = seg.read(offset, RECORD_HEADER);
+        if (header == null) {
+            return null;
+        }
+        int length = header.getInt(0);
+        if (length < RECORD_HEADER || offset + length > Integer.MAX_VALUE) {
+            return null;
+        }
+        ByteBuffer rec = seg.read(offset, length);
+        if (rec == null) {
+            return null;
+        }
+        rec.position(RECORD_HEADER);
+        CRC32 crc = new CRC32();
+        crc.update(rec);
+        if ((int) crc.getValue() != rec.getInt(4)) {
+            return null;
+        }
+        rec.position(RECORD_HEADER);
+        return rec;
+    }
+
+    /**
+     * Reads the text of a record if it belongs to a key.
+     */
+    private static String read(Segment seg, long offset, OcrResultCache.Key key) throws IOException {
+        ByteBuffer rec = record(seg, offset);
+        if (rec == null
+                || rec.getLong() != key.hash1
+                || rec.getLong() != key.hash2
+                || rec.getInt() != key.width
+                || rec.getInt() != key.height) {
+            return null;
+        }
+        String fingerprint = getString(rec);
+        if (!key.fingerprint.equals(fingerprint)) {
+            return null;
+        }
+        return getString(rec);
+    }
+
+    private static String getString(ByteBuffer rec) {
+        int length = rec.remaining() < 4 ? -1 : rec.getInt();
+        if (length < 0 || length > rec.remaining()) {
+            return null;
+        }
+        byte[] utf8 = new byte[length];
+        rec.get(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Appends a record to the log. Called with the file lock held.
+     *
+     * @return the offset of the record, or -1 if the log is too large to be
+     * mapped
+     */
+    private static long append(Segment seg, byte[] record) throws IOException {
+        FileChannel channel = FileChannel.open(seg.logFile.toPath(), StandardOpenOption.WRITE);
+        try {
+            long offset = channel.size();
+            if (offset + record.length > Integer.MAX_VALUE) {
+                return -1;
+            }
+            ByteBuffer buf = ByteBuffer.wrap(record);
+            while (buf.hasRemaining()) {
+                channel.write(buf, offset + buf.position());
+            }
+            return offset;
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Writes the newest live records of a generation into the files of the
+     * next one and publishes it. Called with the file lock held.
+     */
+    private void rewrite(Segment seg) throws IOException {
+        // the records kept are then views of the mapping rather than copies
+        seg.mapAll();
+
+        // live records are those the index points to, oldest first
+        long[] offsets = new long[seg.index.getInt(12)];
+        int count = 0;
+        for (int i = 0; i < seg.slots && count < offsets.length; i++) {
+            int pos = INDEX_HEADER + i * SLOT_SIZE;
+            if (seg.index.getLong(pos) != 0) {
+                offsets[count++] = seg.index.getLong(pos + 8);
+            }
+        }
+        Arrays.sort(offsets, 0, count);
+
+        // keep the newest records filling half the bound
+        ByteBuffer[] records = new ByteBuffer[count];
+        long kept = 0;
+        int first = count;
+        while (first > 0) {
+            ByteBuffer rec = record(seg, offsets[first - 1]);
+            if (rec != null) {
+                rec.position(0);
+                if (kept + rec.remaining() > maxBytes / 2) {
+                    break;
+                }
+                kept += rec.remaining();
+            }
+            records[--first] = rec;
+        }
+
+        long gen = seg.generation + 1;
+        int live = 0;
+        for (int i = first; i < count; i++) {
+            if (records[i] != null) {
+                live++;
+            }
+        }
+        int slots = MIN_INDEX_SLOTS;
+        while (slots < live * 2) {
+            slots <<= 1;
+        }
+
+        MappedByteBuffer index = createIndex(getIndexFile(gen), slots);
+        FileChannel log = createLog(getLogFile(gen));
+        try {
+            long offset = LOG_HEADER;
+            for (int i = first; i < count; i++) {
+                ByteBuffer rec = records[i];
+                if (rec == null) {
+                    continue;
+                }
+                long tag = tagOf(rec.duplicate());
+                int length = rec.remaining();
+                while (rec.hasRemaining()) {
+                    log.write(rec);
+                }
+                int j = (int) tag & (slots - 1);
+                while (index.getLong(INDEX_HEADER + j * SLOT_SIZE) != 0) {
+                    j = (j + 1) & (slots - 1);
+                }
+                index.putLong(INDEX_HEADER + j * SLOT_SIZE + 8, offset);
+                index.putLong(INDEX_HEADER + j * SLOT_SIZE, tag);
+                offset += length;
+            }
+            index.putInt(12, live);
+            log.force(true);
+        } finally {
+            log.close();
+        }
+        index.force();
+
+        generation.putLong(0, gen);
+        generation.force();
+        segment = new Segment(gen);
+
+        // files still mapped by other processes are removed once unmapped on
+        // POSIX systems; elsewhere they are retried after the next compaction
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                String name = file.getName();
+                if (name.startsWith(FILE_PREFIX) && (name.endsWith(".log") || name.endsWith(".idx"))) {
+                    try {
+                        long fileGen = Long.parseLong(name.substring(FILE_PREFIX.length(), name.length() - 4));
+                        if (fileGen < gen && !file.delete()) {
+                            logger.log(Level.FINE, "Cannot delete {0}", file);
+                        }
+                    } catch (NumberFormatException nfe) {
+                        // not a cache file
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Recomputes the index tag of a whole record.
+     */
+    private static long tagOf(ByteBuffer rec) {
+        rec.position(rec.position() + RECORD_HEADER);
+        long hash1 = rec.getLong();
+        long hash2 = rec.getLong();
+        int width = rec.getInt();
+        int height = rec.getInt();
+        return tag(hash1, hash2, width, height, getString(rec));
+    }
+
+    private static FileChannel createLog(File file) throws IOException {
+        FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        ByteBuffer header = ByteBuffer.allocate(LOG_HEADER);
+        header.putInt(LOG_MAGIC).putInt(VERSION).flip();
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+        return channel;
+    }
+
+    private static MappedByteBuffer createIndex(File file, int slots) throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            long size = INDEX_HEADER + (long) slots * SLOT_SIZE;
+            raf.setLength(0);
+            raf.setLength(size);
+            MappedByteBuffer index = raf.getChannel().map(MapMode.READ_WRITE, 0, size);
+            index.putInt(0, INDEX_MAGIC);
+            index.putInt(4, VERSION);
+            index.putInt(8, slots);
+            index.putInt(12, 0);
+            return index;
+        } finally {
+            raf.close();
+        }
+    }
+
+    /**
+     * The files of one generation.
+     */
+    private final class Segment {
+
+        final long generation;
+        final File logFile;
+        final MappedByteBuffer index;
+        final int slots;
+        // read-only view of the log, remapped each time the log has doubled
+        private volatile ByteBuffer log;
+
+        Segment(long generation) throws IOException {
+            this.generation = generation;
+            this.logFile = getLogFile(generation);
+            File indexFile = getIndexFile(generation);
+            FileChannel channel = FileChannel.open(indexFile.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+            try {
+                index = channel.map(MapMode.READ_WRITE, 0, channel.size());
+            } finally {
+                channel.close();
+            }
+            if (index.capacity() < INDEX_HEADER || index.getInt(0) != INDEX_MAGIC || index.getInt(4) != VERSION) {
+                throw new IOException("Not an OCR cache index: " + indexFile);
+            }
+            slots = index.getInt(8);
+            if (Integer.bitCount(slots) != 1 || INDEX_HEADER + (long) slots * SLOT_SIZE > index.capacity()) {
+                throw new IOException("Corrupt OCR cache index: " + indexFile);
+            }
+            log = ByteBuffer.allocate(0);
+        }
+
+        /**
+         * Gets part of the log. Parts within the mapping are views of it;
+         * parts past it are read from the file until the log has doubled in
+         * size, so appends do not each cost a mapping of the whole log.
+         *
+         * @return the bytes, positioned at 0, or <code>null</code> if the log
+         * is not that long
+         */
+        ByteBuffer read(long offset, int length) throws IOException {
+            long end = offset + length;
+            ByteBuffer buf = log;
+            if (buf.capacity() < end) {
+                FileChannel channel = FileChannel.open(logFile.toPath(), StandardOpenOption.READ);
+                try {
+                    long size = channel.size();
+                    if (size < end) {
+                        return null;
+                    }
+                    synchronized (this) {
+                        buf = log;
+                        if (buf.capacity() < end && size >= 2L * buf.capacity()) {
+                            buf = channel.map(MapMode.READ_ONLY, 0, Math.min(size, Integer.MAX_VALUE));
+                            log = buf;
+                        }
+                    }
+                    if (buf.capacity() < end) {
+                        ByteBuffer dst = ByteBuffer.allocate(length);
+                        while (dst.hasRemaining()) {
+                            if (channel.read(dst, offset + dst.position()) < 0) {
+                                return null;
+                            }
+                        }
+                        dst.flip();
+                        return dst;
+                    }
+                } finally {
+                    channel.close();
+                }
+            }
+            ByteBuffer part = buf.duplicate();
+            part.limit((int) end);
+            part.position((int) offset);
+            return part.slice();
+        }
+
+        /**
+         * Maps the whole log.
+         */
+        synchronized void mapAll() throws IOException {
+            FileChannel channel = FileChannel.open(logFile.toPath(), StandardOpenOption.READ);
+            try {
+                log = channel.map(MapMode.READ_ONLY, 0, Math.min(channel.size(), Integer.MAX_VALUE));
+            } finally {
+                channel.close();
+            }
+        }
+    }
+}
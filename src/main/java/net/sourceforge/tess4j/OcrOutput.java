@@ -0,0 +1,52 @@
+/**
+ * Copyright @ 2015 Quan Nguyen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.sourceforge.tess4j;
+
+import java.util.Map;
+
+import net.sourceforge.tess4j.ITesseract.RenderedFormat;
+
+/**
+ * The results of one recognition in the formats requested from
+ * {@link ITesseract#getOutput}.
+ */
+public class OcrOutput {
+
+    private final Map<RenderedFormat, String> texts;
+    private final int[] wordConfidences;
+
+    public OcrOutput(Map<RenderedFormat, String> texts, int[] wordConfidences) {
+        this.texts = texts;
+        this.wordConfidences = wordConfidences;
+    }
+
+    /**
+     * @param format the output format
+     * @return the text in the given format, or <code>null</code> if not
+     * requested
+     */
+    public String getText(RenderedFormat format) {
+        return texts.get(format);
+    }
+
+    /**
+     * @return the confidence of each word, 0 to 100, or <code>null</code> if
+     * not requested
+     */
+    public int[] getWordConfidences() {
+        return wordConfidences;
+    }
+}
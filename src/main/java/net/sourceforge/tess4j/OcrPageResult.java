@@ -0,0 +1,305 @@
+/**
+ * Copyright @ 2015 Quan Nguyen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.sourceforge.tess4j;
+
+import java.awt.Rectangle;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import com.sun.jna.Pointer;
+
+/**
+ * The elements of a recognized page in column arrays rather than one object
+ * per element: bounding boxes in an <code>int[]</code>, confidences in a
+ * <code>float[]</code>, levels and flags in <code>byte[]</code>s, and the text
+ * of all elements in one UTF-8 buffer with offsets. Elements are in reading
+ * order; each block, paragraph and line precedes the elements it contains.
+ * Only elements at the requested level carry text.
+ */
+public class OcrPageResult {
+
+    public static final int FLAG_BOLD = 1;
+    public static final int FLAG_ITALIC = 1 << 1;
+    public static final int FLAG_UNDERLINED = 1 << 2;
+    public static final int FLAG_MONOSPACE = 1 << 3;
+    public static final int FLAG_SERIF = 1 << 4;
+    public static final int FLAG_SMALLCAPS = 1 << 5;
+    public static final int FLAG_FROM_DICTIONARY = 1 << 6;
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    private int size;
+    private int[] boxes = new int[INITIAL_CAPACITY * 4];
+    private float[] confidences = new float[INITIAL_CAPACITY];
+    private byte[] levels = new byte[INITIAL_CAPACITY];
+    private byte[] flags = new byte[INITIAL_CAPACITY];
+    private int[] textOffsets = new int[INITIAL_CAPACITY + 1];
+    private byte[] text = new byte[INITIAL_CAPACITY * 8];
+
+    /**
+     * Appends an element.
+     *
+     * @param level TessPageIteratorLevel enum
+     * @param left left of the bounding box
+     * @param top top of the bounding box
+     * @param right right of the bounding box, exclusive
+     * @param bottom bottom of the bounding box, exclusive
+     * @param confidence confidence, 0 to 100
+     * @param elementFlags <code>FLAG_</code> bits
+     * @param utf8Text null-terminated UTF-8 text in native memory; copied.
+     * May be <code>null</code>.
+     */
+    void add(int level, int left, int top, int right, int bottom, float confidence, int elementFlags, Pointer utf8Text) {
+        int length = utf8Text != null ? (int) utf8Text.indexOf(0, (byte) 0) : 0;
+        int offset = addElement(level, left, top, right, bottom, confidence, elementFlags, length);
+        if (length > 0) {
+            utf8Text.read(0, text, offset, length);
+        }
+    }
+
+    /**
+     * Appends an element with text from a Java array.
+     *
+     * @param level TessPageIteratorLevel enum
+     * @param left left of the bounding box
+     * @param top top of the bounding box
+     * @param right right of the bounding box, exclusive
+     * @param bottom bottom of the bounding box, exclusive
+     * @param confidence confidence, 0 to 100
+     * @param elementFlags <code>FLAG_</code> bits
+     * @param utf8Text UTF-8 text; copied
+     * @param textOffset start of the text in the array
+     * @param textLength number of bytes of text
+     */
+    void add(int level, int left, int top, int right, int bottom, float confidence, int elementFlags, byte[] utf8Text, int textOffset, int textLength) {
+        int offset = addElement(level, left, top, right, bottom, confidence, elementFlags, textLength);
+        System.arraycopy(utf8Text, textOffset, text, offset, textLength);
+    }
+
+    /**
+     * Appends an element and reserves room for its text.
+     *
+     * @return offset of the text in the text buffer
+     */
+    private int addElement(int level, int left, int top, int right, int bottom, float confidence, int elementFlags, int textLength) {
+        if (size == levels.length) {
+            grow();
+        }
+        int i = size;
+        boxes[i * 4] = left;
+        boxes[i * 4 + 1] = top;
+        boxes[i * 4 + 2] = right;
+        boxes[i * 4 + 3] = bottom;
+        confidences[i] = confidence;
+        levels[i] = (byte) level;
+        flags[i] = (byte) elementFlags;
+
+        int offset = textOffsets[i];
+        if (offset + textLength > text.length) {
+            text = Arrays.copyOf(text, Math.max(text.length * 2, offset + textLength));
+        }
+        textOffsets[i + 1] = offset + textLength;
+        size++;
+        return offset;
+    }
+
+    /**
+     * Replaces the confidence of an element, e.g. of a line once all its
+     * words are known.
+     *
+     * @param i element index
+     * @param confidence confidence, 0 to 100
+     */
+    void setConfidence(int i, float confidence) {
+        checkIndex(i);
+        confidences[i] = confidence;
+    }
+
+    private void grow() {
+        int capacity = Math.max(INITIAL_CAPACITY, levels.length * 2);
+        boxes = Arrays.copyOf(boxes, capacity * 4);
+        confidences = Arrays.copyOf(confidences, capacity);
+        levels = Arrays.copyOf(levels, capacity);
+        flags = Arrays.copyOf(flags, capacity);
+        textOffsets = Arrays.copyOf(textOffsets, capacity + 1);
+    }
+
+    /**
+     * Releases the unused capacity of the arrays.
+     */
+    public void trimToSize() {
+        boxes = Arrays.copyOf(boxes, size * 4);
+        confidences = Arrays.copyOf(confidences, size);
+        levels = Arrays.copyOf(levels, size);
+        flags = Arrays.copyOf(flags, size);
+        textOffsets = Arrays.copyOf(textOffsets, size + 1);
+        text = Arrays.copyOf(text, textOffsets[size]);
+    }
+
+    /**
+     * @return the number of elements
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param i element index
+     * @return the TessPageIteratorLevel of the element
+     */
+    public int getLevel(int i) {
+        checkIndex(i);
+        return levels[i];
+    }
+
+    /**
+     * @param i element index
+     * @return the <code>FLAG_</code> bits of the element; font flags are set
+     * for words and symbols only
+     */
+    public int getFlags(int i) {
+        checkIndex(i);
+        return flags[i] & 0xff;
+    }
+
+    /**
+     * @param i element index
+     * @return the confidence of the element
+     */
+    public float getConfidence(int i) {
+        checkIndex(i);
+        return confidences[i];
+    }
+
+    /**
+     * @param i element index
+     * @return left of the bounding box
+     */
+    public int getLeft(int i) {
+        checkIndex(i);
+        return boxes[i * 4];
+    }
+
+    /**
+     * @param i element index
+     * @return top of the bounding box
+     */
+    public int getTop(int i) {
+        checkIndex(i);
+        return boxes[i * 4 + 1];
+    }
+
+    /**
+     * @param i element index
+     * @return right of the bounding box, exclusive
+     */
+    public int getRight(int i) {
+        checkIndex(i);
+        return boxes[i * 4 + 2];
+    }
+
+    /**
+     * @param i element index
+     * @return bottom of the bounding box, exclusive
+     */
+    public int getBottom(int i) {
+        checkIndex(i);
+        return boxes[i * 4 + 3];
+    }
+
+    /**
+     * @param i element index
+     * @return the bounding box, as a new object
+     */
+    public Rectangle getRect(int i) {
+        checkIndex(i);
+        int left = boxes[i * 4];
+        int top = boxes[i * 4 + 1];
+        return new Rectangle(left, top, boxes[i * 4 + 2] - left, boxes[i * 4 + 3] - top);
+    }
+
+    /**
+     * @param i element index
+     * @return the text of the element, decoded from the text buffer
+     */
+    public String getText(int i) {
+        checkIndex(i);
+        return new String(text, textOffsets[i], textOffsets[i + 1] - textOffsets[i], StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @param i element index
+     * @return start of the element's text in {@link #getTextBuffer()}
+     */
+    public int getTextOffset(int i) {
+        checkIndex(i);
+        return textOffsets[i];
+    }
+
+    /**
+     * @param i element index
+     * @return number of UTF-8 bytes of the element's text
+     */
+    public int getTextLength(int i) {
+        checkIndex(i);
+        return textOffsets[i + 1] - textOffsets[i];
+    }
+
+    /**
+     * Gets the UTF-8 text of all elements, for reading without decoding each
+     * element to a <code>String</code>. Not a copy; must not be modified.
+     *
+     * @return the text buffer
+     */
+    public byte[] getTextBuffer() {
+        return text;
+    }
+
+    /**
+     * Gets the bounding boxes of all elements as left, top, right and bottom
+     * for each element. Not a copy; must not be modified.
+     *
+     * @return the box array, of at least <code>4 * size()</code> values
+     */
+    public int[] getBoxes() {
+        return boxes;
+    }
+
+    /**
+     * Gets the confidences of all elements. Not a copy; must not be modified.
+     *
+     * @return the confidence array, of at least <code>size()</code> values
+     */
+    public float[] getConfidences() {
+        return confidences;
+    }
+
+    /**
+     * Creates a <code>Word</code> for an element.
+     *
+     * @param i element index
+     * @return the word
+     */
+    public Word getWord(int i) {
+        return new Word(getText(i), getConfidence(i), getRect(i));
+    }
+
+    private void checkIndex(int i) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + size);
+        }
+    }
+}
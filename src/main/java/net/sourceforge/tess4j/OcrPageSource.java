@@ -0,0 +1,55 @@
+/**
+ * Copyright @ 2015 Quan Nguyen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.sourceforge.tess4j;
+
+import java.awt.image.BufferedImage;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Iterator;
+
+/**
+ * The pages of a document, produced one at a time as the OCR loop asks for
+ * them. Only the pages being recognized need to be held in memory.
+ */
+public interface OcrPageSource extends Closeable {
+
+    /**
+     * Gets the next page.
+     *
+     * @return the next page, or <code>null</code> after the last page
+     * @throws IOException if the page cannot be read
+     */
+    BufferedImage nextPage() throws IOException;
+
+    /**
+     * Wraps an iterator of pages.
+     *
+     * @param pages the pages
+     * @return a page source drawing from the iterator
+     */
+    static OcrPageSource of(final Iterator<BufferedImage> pages) {
+        return new OcrPageSource() {
+            @Override
+            public BufferedImage nextPage() {
+                return pages.hasNext() ? pages.next() : null;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+}
@@ -0,0 +1,103 @@
+/**
+ * Copyright @ 2015 Quan Nguyen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.sourceforge.tess4j;
+
+import java.awt.Rectangle;
+import java.util.Properties;
+
+/**
+ * A region of an image to be recognized with its own settings, e.g., a form
+ * field read as a single line of digits. The page segmentation mode and
+ * variables of a region apply to that region only; the engine's settings are
+ * restored before the next region.
+ */
+public class OcrRegion {
+
+    private final Rectangle rect;
+    private int pageSegMode = -1;
+    private final Properties variables = new Properties();
+
+    /**
+     * Creates a region recognized with the engine's settings.
+     *
+     * @param rect the bounding rectangle of the region. A rectangle of zero
+     * dimension or <code>null</code> indicates the whole image.
+     */
+    public OcrRegion(Rectangle rect) {
+        this.rect = rect;
+    }
+
+    /**
+     * Creates a region with its own page segmentation mode.
+     *
+     * @param rect the bounding rectangle of the region
+     * @param pageSegMode the page segmentation mode, e.g.,
+     * <code>PSM_SINGLE_LINE</code>
+     */
+    public OcrRegion(Rectangle rect, int pageSegMode) {
+        this.rect = rect;
+        this.pageSegMode = pageSegMode;
+    }
+
+    /**
+     * @return the bounding rectangle
+     */
+    public Rectangle getRect() {
+        return rect;
+    }
+
+    /**
+     * @return the page segmentation mode; -1 for the engine's mode
+     */
+    public int getPageSegMode() {
+        return pageSegMode;
+    }
+
+    /**
+     * Sets page segmentation mode for this region.
+     *
+     * @param mode the page segmentation mode to set; -1 for the engine's mode
+     */
+    public void setPageSegMode(int mode) {
+        this.pageSegMode = mode;
+    }
+
+    /**
+     * Sets the value of Tesseract's internal parameter for this region.
+     *
+     * @param key variable name, e.g., <code>tessedit_char_whitelist</code>
+     * @param value value for corresponding variable
+     */
+    public void setTessVariable(String key, String value) {
+        variables.setProperty(key, value);
+    }
+
+    /**
+     * Restricts the characters recognized in this region.
+     *
+     * @param whitelist the allowed characters, e.g., "0123456789"
+     */
+    public void setCharWhitelist(String whitelist) {
+        setTessVariable("tessedit_char_whitelist", whitelist);
+    }
+
+    /**
+     * @return the variables set for this region
+     */
+    public Properties getTessVariables() {
+        return variables;
+    }
+}
@@ -0,0 +1,90 @@
+/**
+ * Copyright @ 2015 Quan Nguyen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.sourceforge.tess4j;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs only one recognition at a time per image and configuration. Callers
+ * submitting a key that is already being recognized wait for that recognition
+ * and share its result, instead of initializing an engine and recognizing the
+ * same image again. Useful against bursts of identical uploads; combine with
+ * an {@link OcrResultCache} to also reuse finished results.<br>
+ * <br>
+ * A coalescer may be shared by several <code>Tesseract</code> instances; the
+ * configuration is part of the key.
+ */
+public class OcrRequestCoalescer {
+
+    private final ConcurrentMap<OcrResultCache.Key, FutureTask<String>> inFlight = new ConcurrentHashMap<OcrResultCache.Key, FutureTask<String>>();
+    private final AtomicLong joinedCount = new AtomicLong();
+
+    /**
+     * Runs a recognition on the calling thread, or waits for the one already
+     * running for the same key.
+     *
+     * @param key image and configuration
+     * @param recognition the recognition
+     * @return the text recognized by this call or the one joined
+     * @throws TesseractException if the recognition failed, or the wait was
+     * interrupted
+     */
+    public String execute(OcrResultCache.Key key, Callable<String> recognition) throws TesseractException {
+        FutureTask<String> task = new FutureTask<String>(recognition);
+        FutureTask<String> running = inFlight.putIfAbsent(key, task);
+        if (running == null) {
+            try {
+                task.run();
+            } finally {
+                inFlight.remove(key, task);
+            }
+            running = task;
+        } else {
+            joinedCount.incrementAndGet();
+        }
+
+        try {
+            return running.get();
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new TesseractException(ie);
+        } catch (ExecutionException ee) {
+            if (ee.getCause() instanceof TesseractException) {
+                throw (TesseractException) ee.getCause();
+            }
+            throw new TesseractException(ee.getCause());
+        }
+    }
+
+    /**
+     * @return the number of recognitions currently running
+     */
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    /**
+     * @return the number of calls that joined a running recognition
+     */
+    public long getJoinedCount() {
+        return joinedCount.get();
+    }
+}
@@ -0,0 +1,399 @@
+/**
+ * Copyright @ 2015 Quan Nguyen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.sourceforge.tess4j;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.DataBuffer;
+import java.awt.image.IndexColorModel;
+import java.awt.image.Raster;
+import java.awt.image.SampleModel;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded, thread-safe cache of recognized text, keyed by the content of the
+ * image and the configuration it was recognized with. Identical images, such
+ * as re-submitted uploads or repeated letterhead pages, are then recognized
+ * only once; a hit skips the pixel conversion, the upload and the
+ * recognition.<br>
+ * <br>
+ * The cache holds entries up to a total size in bytes; the least recently
+ * used entries are evicted first. An optional {@link OcrDiskCache} backs the
+ * heap: entries are written through to it, and heap misses found on disk are
+ * brought back into the heap.
+ */
+public class OcrResultCache {
+
+    /**
+     * Default bound for the cached entries, 64 MB.
+     */
+    public static final long DEFAULT_MAX_BYTES = 1L << 26;
+
+    // approximate heap footprint of an entry besides its strings
+    private static final int ENTRY_OVERHEAD = 128;
+
+    private final long maxBytes;
+    private final OcrDiskCache diskCache;
+    private final LinkedHashMap<Key, String> entries = new LinkedHashMap<Key, String>(16, 0.75f, true);
+    private long bytes;
+    private long hitCount;
+    private long diskHitCount;
+    private long missCount;
+    private long evictionCount;
+
+    /**
+     * Creates a cache of at most {@link #DEFAULT_MAX_BYTES}.
+     */
+    public OcrResultCache() {
+        this(DEFAULT_MAX_BYTES);
+    }
+
+    /**
+     * Creates a cache.
+     *
+     * @param maxBytes bound for the approximate heap size of the entries
+     */
+    public OcrResultCache(long maxBytes) {
+        this(maxBytes, null);
+    }
+
+    /**
+     * Creates a cache backed by a disk tier.
+     *
+     * @param maxBytes bound for the approximate heap size of the entries
+     * @param diskCache the disk tier; <code>null</code> for none. It is not
+     * closed by the cache.
+     */
+    public OcrResultCache(long maxBytes, OcrDiskCache diskCache) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("maxBytes must be positive");
+        }
+        this.maxBytes = maxBytes;
+        this.diskCache = diskCache;
+    }
+
+    /**
+     * Looks up the text recognized for a key, in the heap and then on disk.
+     *
+     * @param key image and configuration
+     * @return the text, or <code>null</code> if not cached
+     */
+    public String get(Key key) {
+        synchronized (this) {
+            String text = entries.get(key);
+            if (text != null) {
+                hitCount++;
+                return text;
+            }
+            if (diskCache == null) {
+                missCount++;
+                return null;
+            }
+        }
+
+        // the disk is read without holding the lock
+        String text = diskCache.get(key);
+        synchronized (this) {
+            if (text == null) {
+                missCount++;
+            } else {
+                hitCount++;
+                diskHitCount++;
+                putEntry(key, text);
+            }
+        }
+        return text;
+    }
+
+    /**
+     * Stores the text recognized for a key, evicting the least recently used
+     * entries as needed. Text larger than the whole cache is not stored.
+     *
+     * @param key image and configuration
+     * @param text the recognized text
+     */
+    public void put(Key key, String text) {
+        synchronized (this) {
+            putEntry(key, text);
+        }
+        if (diskCache != null) {
+            diskCache.put(key, text);
+        }
+    }
+
+    private void putEntry(Key key, String text) {
+        long size = sizeOf(key, text);
+        if (size > maxBytes) {
+            return;
+        }
+        String previous = entries.put(key, text);
+        if (previous != null) {
+            bytes -= sizeOf(key, previous);
+        }
+        bytes += size;
+
+        Iterator<Map.Entry<Key, String>> it = entries.entrySet().iterator();
+        while (bytes > maxBytes && it.hasNext()) {
+            Map.Entry<Key, String> eldest = it.next();
+            bytes -= sizeOf(eldest.getKey(), eldest.getValue());
+            it.remove();
+            evictionCount++;
+        }
+    }
+
+    /**
+     * Removes all entries from the heap. The disk tier and the statistics
+     * are kept.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        bytes = 0;
+    }
+
+    /**
+     * @return the number of cached entries
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return the approximate heap size of the cached entries, in bytes
+     */
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * @return the bound for the heap size of the cached entries, in bytes
+     */
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * @return the number of lookups that found an entry
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * @return the number of lookups that found an entry on disk only; they
+     * are included in the hit count
+     */
+    public synchronized long getDiskHitCount() {
+        return diskHitCount;
+    }
+
+    /**
+     * @return the number of lookups that found no entry
+     */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * @return the number of entries evicted to stay within the bound
+     */
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    private static long sizeOf(Key key, String text) {
+        return ENTRY_OVERHEAD + 2L * (key.fingerprint.length() + text.length());
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("[entries=%d, bytes=%d, hits=%d, misses=%d, evictions=%d]",
+                entries.size(), bytes, hitCount, missCount, evictionCount);
+    }
+
+    /**
+     * Identifies an image by a 128-bit hash of its pixel data, together with a
+     * fingerprint of the OCR configuration. The pixels are hashed in the
+     * layout of the image's raster, so an image and its copy of the same type
+     * have equal keys, while the same picture in another image type does not.
+     */
+    public static final class Key {
+
+        private static final long P1 = 0x9E3779B97F4A7C15L;
+        private static final long P2 = 0xC2B2AE3D27D4EB4FL;
+
+        // package-private for the disk tier, which stores them in its log
+        final long hash1;
+        final long hash2;
+        final int width;
+        final int height;
+        final String fingerprint;
+
+        /**
+         * Creates a key by hashing the pixels of an image.
+         *
+         * @param image the image
+         * @param fingerprint the configuration the image is recognized with,
+         * e.g. language, engine mode, variables and region
+         */
+        public Key(BufferedImage image, String fingerprint) {
+            this.width = image.getWidth();
+            this.height = image.getHeight();
+            this.fingerprint = fingerprint;
+
+            Raster raster = image.getRaster();
+            ColorModel cm = image.getColorModel();
+            long h1 = P1 ^ image.getType();
+            long h2 = P2 ^ raster.getNumDataElements();
+            h1 = mix(h1, cm.getClass().getName().hashCode());
+            h2 = mix2(h2, cm.getNumComponents());
+            if (cm instanceof IndexColorModel) {
+                IndexColorModel icm = (IndexColorModel) cm;
+                int[] rgbs = new int[icm.getMapSize()];
+                icm.getRGBs(rgbs);
+                for (int rgb : rgbs) {
+                    h1 = mix(h1, rgb);
+                    h2 = mix2(h2, rgb);
+                }
+            }
+
+            // bits outside the color masks of packed pixels are undefined
+            int mask = -1;
+            SampleModel sm = raster.getSampleModel();
+            if (sm instanceof SinglePixelPackedSampleModel) {
+                mask = 0;
+                for (int bitMask : ((SinglePixelPackedSampleModel) sm).getBitMasks()) {
+                    mask |= bitMask;
+                }
+            }
+
+            // one row at a time in the raster's transfer type; this reads the
+            // pixels of a subimage without those of its parent
+            Object row = null;
+            int minX = raster.getMinX();
+            int minY = raster.getMinY();
+            for (int y = 0; y < height; y++) {
+                row = raster.getDataElements(minX, minY + y, width, 1, row);
+                switch (raster.getTransferType()) {
+                    case DataBuffer.TYPE_BYTE: {
+                        byte[] data = (byte[]) row;
+                        int i = 0;
+                        for (; i + 8 <= data.length; i += 8) {
+                            long v = (data[i] & 0xFFL)
+                                    | (data[i + 1] & 0xFFL) << 8
+                                    | (data[i + 2] & 0xFFL) << 16
+                                    | (data[i + 3] & 0xFFL) << 24
+                                    | (data[i + 4] & 0xFFL) << 32
+                                    | (data[i + 5] & 0xFFL) << 40
+                                    | (data[i + 6] & 0xFFL) << 48
+                                    | (data[i + 7] & 0xFFL) << 56;
+                            h1 = mix(h1, v);
+                            h2 = mix2(h2, v);
+                        }
+                        for (; i < data.length; i++) {
+                            h1 = mix(h1, data[i]);
+                            h2 = mix2(h2, data[i]);
+                        }
+                        break;
+                    }
+                    case DataBuffer.TYPE_INT: {
+                        int[] data = (int[]) row;
+                        for (int v : data) {
+                            v &= mask;
+                            h1 = mix(h1, v);
+                            h2 = mix2(h2, v);
+                        }
+                        break;
+                    }
+                    case DataBuffer.TYPE_USHORT:
+                    case DataBuffer.TYPE_SHORT: {
+                        short[] data = (short[]) row;
+                        for (short v : data) {
+                            int value = v & mask;
+                            h1 = mix(h1, value);
+                            h2 = mix2(h2, value);
+                        }
+                        break;
+                    }
+                    default: {
+                        int[] data = image.getRGB(0, y, width, 1, null, 0, width);
+                        for (int v : data) {
+                            h1 = mix(h1, v);
+                            h2 = mix2(h2, v);
+                        }
+                        break;
+                    }
+                }
+            }
+            this.hash1 = fmix(h1 ^ width);
+            this.hash2 = fmix(h2 ^ height);
+        }
+
+        private static long mix(long h, long v) {
+            return Long.rotateLeft(h ^ (v * P2), 31) * P1;
+        }
+
+        private static long mix2(long h, long v) {
+            return Long.rotateLeft(h + v * P1, 27) * P2 ^ (h >>> 29);
+        }
+
+        private static long fmix(long h) {
+            h ^= h >>> 33;
+            h *= 0xFF51AFD7ED558CCDL;
+            h ^= h >>> 33;
+            h *= 0xC4CEB9FE1A85EC53L;
+            h ^= h >>> 33;
+            return h;
+        }
+
+        /**
+         * @return the configuration fingerprint
+         */
+        public String getFingerprint() {
+            return fingerprint;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return hash1 == other.hash1
+                    && hash2 == other.hash2
+                    && width == other.width
+                    && height == other.height
+                    && fingerprint.equals(other.fingerprint);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = (int) (hash1 ^ (hash1 >>> 32));
+            result = 31 * result + fingerprint.hashCode();
+            return result;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("[%016x%016x, %dx%d, %s]", hash1, hash2, width, height, fingerprint);
+        }
+    }
+}
@@ -0,0 +1,208 @@
+/**
+ * Copyright @ 2015 Quan Nguyen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.sourceforge.tess4j;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import net.sourceforge.tess4j.ITessAPI.ETEXT_DESC;
+
+/**
+ * Polls the progress monitors of all running recognitions from a single
+ * scheduled thread and reports changes to listeners. Only the progress and
+ * <code>ocr_alive</code> fields are read from native memory on each poll.
+ */
+public class ProgressService implements AutoCloseable {
+
+    /**
+     * Default polling interval, in milliseconds.
+     */
+    public static final long DEFAULT_POLL_INTERVAL = 100;
+
+    private static volatile ProgressService defaultService;
+
+    private final Set<Job> jobs = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService scheduler;
+
+    private final static Logger logger = Logger.getLogger(ProgressService.class.getName());
+
+    /**
+     * Receives progress events. Called on the polling thread, so it should
+     * return quickly.
+     */
+    public interface Listener {
+
+        /**
+         * Called when the progress of a recognition has changed.
+         *
+         * @param job the recognition
+         */
+        void progressChanged(Job job);
+    }
+
+    /**
+     * A recognition being watched.
+     */
+    public static final class Job {
+
+        private final ProgressService service;
+        private final ETEXT_DESC monitor;
+        private final Object tag;
+        private final Listener listener;
+        private volatile int progress = -1;
+        private volatile boolean ocrAlive;
+
+        private Job(ProgressService service, ETEXT_DESC monitor, Object tag, Listener listener) {
+            this.service = service;
+            this.monitor = monitor;
+            this.tag = tag;
+            this.listener = listener;
+        }
+
+        /**
+         * @return the tag given at registration, e.g., the page number
+         */
+        public Object getTag() {
+            return tag;
+        }
+
+        /**
+         * @return percent complete at the last poll, -1 before the first
+         */
+        public int getProgress() {
+            return progress;
+        }
+
+        /**
+         * @return the <code>ocr_alive</code> flag at the last poll
+         */
+        public boolean isOcrAlive() {
+            return ocrAlive;
+        }
+
+        /**
+         * Stops watching the recognition. Must be called before the monitor
+         * is released.
+         */
+        public void unregister() {
+            service.jobs.remove(this);
+        }
+
+        private void poll() {
+            int newProgress = monitor.readProgress();
+            boolean newOcrAlive = monitor.readOcrAlive();
+            if (newProgress != progress || newOcrAlive != ocrAlive) {
+                progress = newProgress;
+                ocrAlive = newOcrAlive;
+                listener.progressChanged(this);
+            }
+        }
+    }
+
+    /**
+     * Creates a service polling at the default interval.
+     */
+    public ProgressService() {
+        this(DEFAULT_POLL_INTERVAL, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Creates a service.
+     *
+     * @param pollInterval time between polls
+     * @param unit the time unit of the interval
+     */
+    public ProgressService(long pollInterval, TimeUnit unit) {
+        scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "tess4j-progress");
+                t.setDaemon(true);
+                return t;
+            }
+        });
+        scheduler.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                poll();
+            }
+        }, pollInterval, pollInterval, unit);
+    }
+
+    /**
+     * Gets the shared service.
+     *
+     * @return the shared service
+     */
+    public static ProgressService getDefault() {
+        if (defaultService == null) {
+            synchronized (ProgressService.class) {
+                if (defaultService == null) {
+                    defaultService = new ProgressService();
+                }
+            }
+        }
+        return defaultService;
+    }
+
+    /**
+     * Starts watching the monitor of a recognition.
+     *
+     * @param monitor the monitor passed to <code>TessBaseAPIRecognize</code>
+     * @param tag identifies the recognition to the listener
+     * @param listener receives the progress events
+     * @return the job; unregister it when the recognition has returned
+     */
+    public Job register(ETEXT_DESC monitor, Object tag, Listener listener) {
+        Job job = new Job(this, monitor, tag, listener);
+        jobs.add(job);
+        return job;
+    }
+
+    /**
+     * Gets the number of recognitions being watched.
+     *
+     * @return job count
+     */
+    public int getJobCount() {
+        return jobs.size();
+    }
+
+    private void poll() {
+        for (Job job : jobs) {
+            try {
+                job.poll();
+            } catch (RuntimeException e) {
+                // a failing listener must not stop the polling thread
+                logger.log(Level.WARNING, e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Stops the polling thread.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
@@ -15,24 +15,57 @@
  */
 package net.sourceforge.tess4j;
 
+import java.awt.Dimension;
 import java.awt.Rectangle;
+import java.awt.geom.Line2D;
 import java.awt.image.BufferedImage;
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.EnumMap;
 import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import net.sourceforge.tess4j.ITessAPI.ETEXT_DESC;
 import net.sourceforge.tess4j.ITessAPI.TessBaseAPI;
 import net.sourceforge.tess4j.ITessAPI.TessOcrEngineMode;
-import net.sourceforge.tess4j.util.ImageIOHelper;
+import net.sourceforge.tess4j.ITessAPI.TessPageIterator;
+import net.sourceforge.tess4j.ITessAPI.TessPageIteratorLevel;
+import net.sourceforge.tess4j.ITessAPI.TessResultIterator;
+import net.sourceforge.tess4j.util.DirectBufferPool;
+import net.sourceforge.tess4j.util.RasterConverter;
+import net.sourceforge.tess4j.util.Utils;
 
 import com.sun.jna.Pointer;
 import com.sun.jna.StringArray;
+import com.sun.jna.ptr.IntByReference;
 import com.sun.jna.ptr.PointerByReference;
 
 /**
@@ -49,24 +82,77 @@ import com.sun.jna.ptr.PointerByReference;
  * Any program that uses the library will need to ensure that the required
  * libraries (the <code>.jar</code> files for <code>jna</code>,
  * <code>jai-imageio</code>, and <code>ghost4j</code>) are in its compile and
- * run-time <code>classpath</code>.
+ * run-time <code>classpath</code>.<br>
+ * <br>
+ * A configured instance may be shared by several threads; each OCR call keeps
+ * its native handle in thread-local state. Combine with
+ * {@link #setEnginePool(TesseractEnginePool)} to avoid initializing a new
+ * engine per call.<br>
+ * <br>
+ * The native calls go through a pluggable {@link TessAPI} binding: the
+ * direct-mapped {@link DirectTessAPI} by default, or the interface-mapped
+ * <code>TessAPI.INSTANCE</code>, or a mock in tests.
  */
-public class Tesseract implements ITesseract {
+public class Tesseract implements ITesseract, AutoCloseable {
 
     private static Tesseract instance;
-    private String language = "eng";
-    private String datapath = "./";
-    private RenderedFormat renderedFormat = RenderedFormat.TEXT;
-    private int psm = -1;
-    private int ocrEngineMode = TessOcrEngineMode.OEM_DEFAULT;
+    private volatile String language = "eng";
+    private volatile String datapath = "./";
+    private volatile RenderedFormat renderedFormat = RenderedFormat.TEXT;
+    private volatile int psm = -1;
+    private volatile int ocrEngineMode = TessOcrEngineMode.OEM_DEFAULT;
     private final Properties prop = new Properties();
-    private final List<String> configList = new ArrayList<String>();
+    private final List<String> configList = new CopyOnWriteArrayList<String>();
 
-    private TessAPI api;
-    private TessBaseAPI handle;
+    private final TessAPI api;
+    private volatile TesseractEnginePool enginePool;
+    // native state of the OCR call in progress on the current thread
+    private final ThreadLocal<TessBaseAPI> threadHandle = new ThreadLocal<TessBaseAPI>();
+    // the pool the engine was leased from, and the key it was leased under
+    private final ThreadLocal<TesseractEnginePool> threadEnginePool = new ThreadLocal<TesseractEnginePool>();
+    private final ThreadLocal<TesseractEnginePool.Key> threadEngineKey = new ThreadLocal<TesseractEnginePool.Key>();
+    private final ThreadLocal<TesseractEnginePool.Key> threadKeepAliveKey = new ThreadLocal<TesseractEnginePool.Key>();
+    // set when the engine failed and must not be reused
+    private final ThreadLocal<Boolean> threadEngineFailed = new ThreadLocal<Boolean>();
+    // the part of the image uploaded, when only a region was uploaded
+    private final ThreadLocal<Rectangle> threadImageRegion = new ThreadLocal<Rectangle>();
+    // the size of the whole image, when only a region was uploaded
+    private final ThreadLocal<Dimension> threadImageSize = new ThreadLocal<Dimension>();
+    private volatile boolean keepAlive;
+    private volatile int regionMargin = -1;
+    private volatile ExecutorService executor;
+    private volatile Executor asyncExecutor;
+    private volatile ProgressService.Listener progressListener;
+    private volatile ProgressService progressService;
+    private volatile OcrResultCache resultCache;
+    private volatile OcrRequestCoalescer requestCoalescer;
+    private volatile boolean batchedExtraction;
+    // handles kept initialized between calls, freed by close()
+    private final Set<TessBaseAPI> keptHandles = Collections.newSetFromMap(new ConcurrentHashMap<TessBaseAPI, Boolean>());
 
     private final static Logger logger = Logger.getLogger(Tesseract.class.getName());
 
+    /**
+     * Creates an instance calling Tesseract through the direct-mapped
+     * {@link DirectTessAPI}.
+     */
+    public Tesseract() {
+        this(DirectTessAPI.getInstance());
+    }
+
+    /**
+     * Creates an instance calling Tesseract through the given binding, e.g.
+     * the interface-mapped <code>TessAPI.INSTANCE</code> or a mock.
+     *
+     * @param api the binding
+     */
+    public Tesseract(TessAPI api) {
+        if (api == null) {
+            throw new IllegalArgumentException("api must not be null");
+        }
+        this.api = api;
+    }
+
     /**
      * Returns TessAPI object.
      *
@@ -77,12 +163,13 @@ public class Tesseract implements ITesseract {
     }
 
     /**
-     * Returns API handle.
+     * Returns the API handle of the OCR call in progress on the current
+     * thread.
      *
      * @return handle
      */
     public TessBaseAPI getHandle() {
-        return handle;
+        return threadHandle.get();
     }
 
     /**
@@ -158,12 +245,133 @@ public class Tesseract implements ITesseract {
         }
     }
 
+    /**
+     * Sets a pool of initialized engines to lease from. With a pool, every
+     * OCR call borrows a warm engine matching the current configuration
+     * instead of creating and initializing a new one. The pooled engines are
+     * created and deleted through the pool's binding. Calls in progress return
+     * their engines to the pool they were leased from.
+     *
+     * @param enginePool the engine pool; <code>null</code> to create a new
+     * engine for each call
+     */
+    public void setEnginePool(TesseractEnginePool enginePool) {
+        this.enginePool = enginePool;
+    }
+
+    /**
+     * Keeps the initialized engine of each calling thread alive between OCR
+     * calls. Only the recognition results are cleared after a call; the
+     * engine is re-initialized only when the configuration changes. The
+     * engines are freed by {@link #close()}. Ignored when an engine pool is
+     * set.
+     *
+     * @param keepAlive to enable or disable persistent engines
+     */
+    public void setKeepAlive(boolean keepAlive) {
+        this.keepAlive = keepAlive;
+    }
+
+    /**
+     * Uploads only the region of interest, grown by the given margin, instead
+     * of the whole image when OCR is called with a rectangle. Bounding boxes
+     * in hOCR output remain relative to the whole image.
+     *
+     * @param regionMargin number of pixels kept around the region; -1, the
+     * default, uploads the whole image
+     */
+    public void setRegionMargin(int regionMargin) {
+        this.regionMargin = regionMargin;
+    }
+
+    /**
+     * Sets an executor to recognize the pages of multi-page documents in
+     * parallel. Each page runs on its own engine in the executor's threads;
+     * the output is merged in page order. The executor should not run the
+     * calling thread's own tasks, or multi-page calls can deadlock.
+     *
+     * @param executor the executor; <code>null</code> to recognize pages one
+     * by one on the calling thread
+     */
+    public void setExecutor(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Sets the executor running the asynchronous <code>doOCRAsync</code>
+     * calls. It should be bounded, as every task occupies an engine for the
+     * whole recognition.
+     *
+     * @param asyncExecutor the executor; <code>null</code> for the shared
+     * {@link TesseractExecutors#getDefaultExecutor()}
+     */
+    public void setAsyncExecutor(Executor asyncExecutor) {
+        this.asyncExecutor = asyncExecutor;
+    }
+
+    /**
+     * Sets a listener for the progress of each recognized page. The event tag
+     * is the page number.
+     *
+     * @param progressListener the listener; <code>null</code> for none
+     */
+    public void setProgressListener(ProgressService.Listener progressListener) {
+        this.progressListener = progressListener;
+    }
+
+    /**
+     * Sets the service polling the progress of recognitions.
+     *
+     * @param progressService the service; <code>null</code> for the shared
+     * {@link ProgressService#getDefault()}
+     */
+    public void setProgressService(ProgressService progressService) {
+        this.progressService = progressService;
+    }
+
+    /**
+     * Sets a cache for the text of single images. An image already recognized
+     * with the same configuration and region is answered from the cache
+     * without being converted, uploaded or recognized; no progress is
+     * reported for it.
+     *
+     * @param resultCache the cache; <code>null</code> for none
+     */
+    public void setResultCache(OcrResultCache resultCache) {
+        this.resultCache = resultCache;
+    }
+
+    /**
+     * Sets a coalescer for concurrent calls on identical single images. While
+     * an image is being recognized, calls with the same image, configuration
+     * and region wait for its result instead of recognizing it again. Calls
+     * with a cancellation token are not coalesced.
+     *
+     * @param requestCoalescer the coalescer; <code>null</code> for none
+     */
+    public void setRequestCoalescer(OcrRequestCoalescer requestCoalescer) {
+        this.requestCoalescer = requestCoalescer;
+    }
+
+    /**
+     * Collects word-level page results from the hOCR text of the page,
+     * fetched in one native call, instead of walking the result iterator
+     * with several calls per word. Confidences are then whole numbers, and
+     * the font flags are limited to bold and italic; other levels are always
+     * collected through the iterator.
+     *
+     * @param batchedExtraction to enable or disable batched extraction
+     */
+    public void setBatchedExtraction(boolean batchedExtraction) {
+        this.batchedExtraction = batchedExtraction;
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     public String doOCR(BufferedImage bi) throws TesseractException {
-        return doOCR(bi, null);
+        return doOCR(bi, (Rectangle) null);
     }
 
     /**
@@ -172,12 +380,203 @@ public class Tesseract implements ITesseract {
     @Override
     public String doOCR(BufferedImage bi, Rectangle rect) throws TesseractException {
         try {
-            return doOCR(Arrays.asList(bi), rect);
+            return doOCR(bi, rect, (CancellationToken) null);
         } catch (Exception e) {
             logger.log(Level.SEVERE, e.getMessage(), e);
             throw new TesseractException(e);
         }
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<String> doOCR(BufferedImage bi, List<Rectangle> rects) throws TesseractException {
+        List<OcrRegion> regions = new ArrayList<OcrRegion>(rects.size());
+        for (Rectangle rect : rects) {
+            regions.add(new OcrRegion(rect));
+        }
+        return doOCRRegions(bi, regions);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<String> doOCRRegions(BufferedImage bi, List<OcrRegion> regions) throws TesseractException {
+        // with a region margin, upload the part of the image covering all regions
+        Rectangle bounds = null;
+        if (regionMargin >= 0) {
+            for (OcrRegion region : regions) {
+                Rectangle rect = region.getRect();
+                if (rect == null || rect.isEmpty()) {
+                    bounds = null;
+                    break;
+                }
+                bounds = bounds == null ? new Rectangle(rect) : bounds.union(rect);
+            }
+        }
+
+        initEngine();
+        setTessVariables();
+
+        try {
+            setImage(bi, bounds);
+            Rectangle uploaded = threadImageRegion.get();
+            int dx = uploaded != null ? uploaded.x : 0;
+            int dy = uploaded != null ? uploaded.y : 0;
+            TessBaseAPI handle = getHandle();
+            int enginePageSegMode = api.TessBaseAPIGetPageSegMode(handle);
+            List<String> results = new ArrayList<String>(regions.size());
+            int regionNum = 0;
+
+            for (OcrRegion region : regions) {
+                regionNum++;
+                Rectangle rect = region.getRect();
+                if (rect == null || rect.isEmpty()) {
+                    api.TessBaseAPISetRectangle(handle, 0, 0, bi.getWidth(), bi.getHeight());
+                } else {
+                    api.TessBaseAPISetRectangle(handle, rect.x - dx, rect.y - dy, rect.width, rect.height);
+                }
+
+                int regionPageSegMode = region.getPageSegMode();
+                Properties regionVariables = region.getTessVariables();
+                Map<String, String> saved = new HashMap<String, String>();
+                try {
+                    if (regionPageSegMode > -1) {
+                        api.TessBaseAPISetPageSegMode(handle, regionPageSegMode);
+                    }
+                    for (String key : regionVariables.stringPropertyNames()) {
+                        String value = getTessVariable(handle, key);
+                        if (value != null) {
+                            saved.put(key, value);
+                        }
+                        api.TessBaseAPISetVariable(handle, key, regionVariables.getProperty(key));
+                    }
+                    if (progressListener != null) {
+                        recognize(null, regionNum);
+                    }
+                    String text = getOCRText(null, regionNum);
+                    results.add(renderedFormat == RenderedFormat.HOCR ? htmlBeginTag + text + htmlEndTag : text);
+                } finally {
+                    // the engine may go back to a pool; leave it as configured
+                    for (Map.Entry<String, String> entry : saved.entrySet()) {
+                        api.TessBaseAPISetVariable(handle, entry.getKey(), entry.getValue());
+                    }
+                    if (regionPageSegMode > -1) {
+                        api.TessBaseAPISetPageSegMode(handle, enginePageSegMode);
+                    }
+                }
+            }
+
+            return results;
+        } catch (IOException ioe) {
+            logger.log(Level.SEVERE, ioe.getMessage(), ioe);
+            throw new TesseractException(ioe);
+        } finally {
+            dispose();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Word> getWords(BufferedImage bi, int pageIteratorLevel) throws TesseractException {
+        initEngine();
+        setTessVariables();
+
+        try {
+            setImage(bi, null);
+            recognize(null, 1);
+            return getWords(pageIteratorLevel);
+        } catch (IOException ioe) {
+            logger.log(Level.SEVERE, ioe.getMessage(), ioe);
+            throw new TesseractException(ioe);
+        } finally {
+            dispose();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public OcrPageResult getPageResult(BufferedImage bi, int pageIteratorLevel) throws TesseractException {
+        initEngine();
+        setTessVariables();
+
+        try {
+            setImage(bi, null);
+            recognize(null, 1);
+            return getPageResult(pageIteratorLevel);
+        } catch (IOException ioe) {
+            logger.log(Level.SEVERE, ioe.getMessage(), ioe);
+            throw new TesseractException(ioe);
+        } finally {
+            dispose();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public OcrOutput getOutput(BufferedImage bi, Rectangle rect, Set<RenderedFormat> formats, boolean wordConfidences) throws TesseractException {
+        initEngine();
+        setTessVariables();
+
+        try {
+            setImage(bi, rect);
+            recognize(null, 1);
+            return getOutput(formats, wordConfidences, bi.getHeight());
+        } catch (IOException ioe) {
+            logger.log(Level.SEVERE, ioe.getMessage(), ioe);
+            throw new TesseractException(ioe);
+        } finally {
+            dispose();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getMeanConfidence(BufferedImage bi, Rectangle rect) throws TesseractException {
+        initEngine();
+        setTessVariables();
+
+        try {
+            setImage(bi, rect);
+            recognize(null, 1);
+            return getMeanConfidence();
+        } catch (IOException ioe) {
+            logger.log(Level.SEVERE, ioe.getMessage(), ioe);
+            throw new TesseractException(ioe);
+        } finally {
+            dispose();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int[] getWordConfidences(BufferedImage bi, Rectangle rect) throws TesseractException {
+        initEngine();
+        setTessVariables();
+
+        try {
+            setImage(bi, rect);
+            recognize(null, 1);
+            return getWordConfidences();
+        } catch (IOException ioe) {
+            logger.log(Level.SEVERE, ioe.getMessage(), ioe);
+            throw new TesseractException(ioe);
+        } finally {
+            dispose();
+        }
+    }
     
     /**
      * {@inheritDoc}
@@ -193,34 +592,262 @@ public class Tesseract implements ITesseract {
      */
     @Override
     public String doOCR(List<BufferedImage> imageList, String filename, Rectangle rect) throws TesseractException {
-        init();
+        return doOCR(imageList, filename, rect, null);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String doOCR(final BufferedImage bi, final Rectangle rect, CancellationToken token) throws TesseractException {
+        final OcrResultCache cache = resultCache;
+        // a joined recognition could not be cancelled through the token
+        OcrRequestCoalescer coalescer = token == null ? requestCoalescer : null;
+        if (cache == null && coalescer == null) {
+            return doOCR(Arrays.asList(bi), null, rect, token);
+        }
+
+        final OcrResultCache.Key key = new OcrResultCache.Key(bi, getCacheFingerprint(rect));
+        if (cache != null) {
+            String text = cache.get(key);
+            if (text != null) {
+                return text;
+            }
+        }
+        if (coalescer == null) {
+            String text = doOCR(Arrays.asList(bi), null, rect, token);
+            cache.put(key, text);
+            return text;
+        }
+
+        return coalescer.execute(key, new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                String text = doOCR(Arrays.asList(bi), null, rect, null);
+                if (cache != null) {
+                    cache.put(key, text);
+                }
+                return text;
+            }
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String doOCR(List<BufferedImage> imageList, String filename, Rectangle rect, CancellationToken token) throws TesseractException {
+        StringWriter out = new StringWriter();
+        writeOCR(imageList, filename, rect, token, out);
+        return out.toString();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void writeOCR(List<BufferedImage> imageList, String filename, Rectangle rect, Writer out) throws TesseractException {
+        writeOCR(imageList, filename, rect, null, out);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void writeOCR(List<BufferedImage> imageList, String filename, Rectangle rect, OutputStream out) throws TesseractException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writeOCR(imageList, filename, rect, null, writer);
+        try {
+            writer.flush();
+        } catch (IOException ioe) {
+            throw new TesseractException(ioe);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String doOCR(OcrPageSource pages, String filename, Rectangle rect) throws TesseractException {
+        StringWriter out = new StringWriter();
+        writeOCR(pages, filename, rect, out);
+        return out.toString();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void writeOCR(OcrPageSource pages, String filename, Rectangle rect, Writer out) throws TesseractException {
+        writeOCR(executor, pages, filename, rect, null, out);
+    }
+
+    private void writeOCR(List<BufferedImage> imageList, String filename, Rectangle rect, CancellationToken token, Writer out) throws TesseractException {
+        // a single page is recognized on the calling thread
+        ExecutorService pageExecutor = imageList.size() > 1 ? executor : null;
+        writeOCR(pageExecutor, OcrPageSource.of(imageList.iterator()), filename, rect, token, out);
+    }
+
+    /**
+     * Recognizes the pages of a document and writes the text of each page as
+     * soon as it is available. A page is no longer referenced once it has
+     * been uploaded to the engine.
+     *
+     * @param pageExecutor executor to recognize the pages in parallel; may be
+     * <code>null</code>
+     * @param pages the pages
+     * @param filename input file name
+     * @param rect region of interest
+     * @param token cancellation token; may be <code>null</code>
+     * @param out the destination; not flushed or closed
+     * @throws TesseractException
+     */
+    private void writeOCR(ExecutorService pageExecutor, OcrPageSource pages, String filename, Rectangle rect, CancellationToken token, Writer out) throws TesseractException {
+        if (pageExecutor != null) {
+            writeOCRParallel(pageExecutor, pages, filename, rect, token, out);
+            return;
+        }
+
+        initEngine();
         setTessVariables();
 
         try {
-            StringBuilder sb = new StringBuilder();
-            int pageNum = 0;
+            if (renderedFormat == RenderedFormat.HOCR) {
+                out.write(htmlBeginTag);
+            }
 
-            for (BufferedImage img : imageList) {
+            int pageNum = 0;
+            BufferedImage img;
+            while ((img = pages.nextPage()) != null) {
                 pageNum++;
                 try {
                     setImage(img, rect);
-                    sb.append(getOCRText(filename, pageNum));
                 } catch (IOException ioe) {
                     // skip the problematic image
                     logger.log(Level.SEVERE, ioe.getMessage(), ioe);
+                    continue;
+                }
+                img = null;
+                if (token != null || progressListener != null) {
+                    recognize(token, pageNum);
                 }
+                out.write(getOCRText(filename, pageNum));
             }
 
             if (renderedFormat == RenderedFormat.HOCR) {
-                sb.insert(0, htmlBeginTag).append(htmlEndTag);
+                out.write(htmlEndTag);
             }
-
-            return sb.toString();
+        } catch (IOException ioe) {
+            throw new TesseractException(ioe);
         } finally {
             dispose();
         }
     }
 
+    /**
+     * Recognizes the pages of a document concurrently, one engine per page,
+     * and writes them in page order. Pages are read from the source only a few
+     * per thread of the executor ahead of the page being written, so memory
+     * use is bounded by the parallelism rather than the document length.
+     *
+     * @param pageExecutor executor running the pages
+     * @param pageSource the pages
+     * @param filename input file name
+     * @param rect region of interest
+     * @param token cancellation token; may be <code>null</code>
+     * @param out the destination
+     * @throws TesseractException
+     */
+    private void writeOCRParallel(ExecutorService pageExecutor, OcrPageSource pageSource, String filename, Rectangle rect, CancellationToken token, Writer out) throws TesseractException {
+        int window = 2 * TesseractExecutors.getParallelism(pageExecutor);
+        Deque<Future<String>> pages = new ArrayDeque<Future<String>>(window);
+        try {
+            if (renderedFormat == RenderedFormat.HOCR) {
+                out.write(htmlBeginTag);
+            }
+
+            boolean more = true;
+            int pageNum = 0;
+            while (more || !pages.isEmpty()) {
+                while (more && pages.size() < window) {
+                    BufferedImage next = pageSource.nextPage();
+                    if (next == null) {
+                        more = false;
+                        break;
+                    }
+                    pages.add(pageExecutor.submit(new PageTask(next, ++pageNum, filename, rect, token)));
+                }
+
+                Future<String> page = pages.poll();
+                if (page == null) {
+                    break;
+                }
+                try {
+                    out.write(page.get());
+                } catch (ExecutionException ee) {
+                    if (ee.getCause() instanceof IOException) {
+                        // skip the problematic image
+                        logger.log(Level.SEVERE, ee.getCause().getMessage(), ee.getCause());
+                        continue;
+                    }
+                    throw new TesseractException(ee.getCause());
+                }
+            }
+
+            if (renderedFormat == RenderedFormat.HOCR) {
+                out.write(htmlEndTag);
+            }
+        } catch (IOException ioe) {
+            throw new TesseractException(ioe);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new TesseractException(ie);
+        } finally {
+            // stop outstanding pages after a failure
+            for (Future<String> page : pages) {
+                page.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Recognizes one page of a parallel run. The page is handed over in the
+     * constructor rather than captured, so the task holds the only reference
+     * and drops it once the pixels are uploaded.
+     */
+    private class PageTask implements Callable<String> {
+
+        private BufferedImage img;
+        private final int pageNum;
+        private final String filename;
+        private final Rectangle rect;
+        private final CancellationToken token;
+
+        PageTask(BufferedImage img, int pageNum, String filename, Rectangle rect, CancellationToken token) {
+            this.img = img;
+            this.pageNum = pageNum;
+            this.filename = filename;
+            this.rect = rect;
+            this.token = token;
+        }
+
+        @Override
+        public String call() throws Exception {
+            initEngine();
+            try {
+                setTessVariables();
+                setImage(img, rect);
+                img = null;
+                if (token != null || progressListener != null) {
+                    recognize(token, pageNum);
+                }
+                return getOCRText(filename, pageNum);
+            } finally {
+                dispose();
+            }
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -234,7 +861,7 @@ public class Tesseract implements ITesseract {
      */
     @Override
     public String doOCR(int xsize, int ysize, ByteBuffer buf, String filename, Rectangle rect, int bpp) throws TesseractException {
-        init();
+        initEngine();
         setTessVariables();
 
         try {
@@ -249,11 +876,156 @@ public class Tesseract implements ITesseract {
     }
 
     /**
-     * Initializes Tesseract engine.
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<String> doOCRAsync(BufferedImage bi) {
+        return doOCRAsync(bi, null);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<String> doOCRAsync(final BufferedImage bi, final Rectangle rect) {
+        return TesseractExecutors.submit(new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                return doOCR(bi, rect);
+            }
+        }, getAsyncExecutor());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<String> doOCRAsync(List<BufferedImage> imageList, Rectangle rect) {
+        return doOCRAsync(imageList, null, rect);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<String> doOCRAsync(final List<BufferedImage> imageList, final String filename, final Rectangle rect) {
+        return TesseractExecutors.submit(new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                return doOCR(imageList, filename, rect);
+            }
+        }, getAsyncExecutor());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<String> doOCRAsync(int xsize, int ysize, ByteBuffer buf, Rectangle rect, int bpp) {
+        return doOCRAsync(xsize, ysize, buf, null, rect, bpp);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<String> doOCRAsync(final int xsize, final int ysize, final ByteBuffer buf, final String filename, final Rectangle rect, final int bpp) {
+        return TesseractExecutors.submit(new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                return doOCR(xsize, ysize, buf, filename, rect, bpp);
+            }
+        }, getAsyncExecutor());
+    }
+
+    private Executor getAsyncExecutor() {
+        Executor configured = asyncExecutor;
+        return configured != null ? configured : TesseractExecutors.getDefaultExecutor();
+    }
+
+    /**
+     * Calls {@link #init()}, turning a failed engine lease back into the
+     * pool's <code>TesseractException</code>.
+     *
+     * @throws TesseractException if no pooled engine could be obtained
+     */
+    private void initEngine() throws TesseractException {
+        try {
+            init();
+        } catch (IllegalStateException ise) {
+            if (ise.getCause() instanceof TesseractException) {
+                throw (TesseractException) ise.getCause();
+            }
+            throw ise;
+        }
+    }
+
+    /**
+     * Initializes Tesseract engine, or leases one from the engine pool if
+     * set.
+     *
+     * @throws IllegalStateException if no pooled engine could be obtained;
+     * the cause is the pool's <code>TesseractException</code>, which the OCR
+     * methods throw instead
      */
     public void init() {
-        api = TessAPI.INSTANCE;
-        handle = api.TessBaseAPICreate();
+        // read once: the pool may be replaced by another thread meanwhile
+        TesseractEnginePool pool = enginePool;
+        if (pool != null) {
+            TesseractEnginePool.Key engineKey = createEngineKey();
+            try {
+                threadHandle.set(pool.borrow(engineKey));
+            } catch (TesseractException te) {
+                throw new IllegalStateException(te.getMessage(), te);
+            }
+            threadEnginePool.set(pool);
+            threadEngineKey.set(engineKey);
+            return;
+        }
+
+        if (keepAlive) {
+            TesseractEnginePool.Key engineKey = createEngineKey();
+            TessBaseAPI handle = threadHandle.get();
+            if (handle != null && keptHandles.contains(handle)) {
+                if (engineKey.equals(threadKeepAliveKey.get())) {
+                    return;
+                }
+                // configuration changed since the engine was initialized
+                keptHandles.remove(handle);
+                api.TessBaseAPIDelete(handle);
+            }
+            handle = createHandle();
+            keptHandles.add(handle);
+            threadHandle.set(handle);
+            threadKeepAliveKey.set(engineKey);
+            return;
+        }
+
+        threadHandle.set(createHandle());
+    }
+
+    private TesseractEnginePool.Key createEngineKey() {
+        return new TesseractEnginePool.Key(datapath, language, ocrEngineMode, psm, configList, prop);
+    }
+
+    /**
+     * Describes everything besides the pixels that affects the text of an
+     * image: the engine configuration, the output format and the region.
+     *
+     * @param rect region of interest; may be <code>null</code>
+     * @return the fingerprint
+     */
+    private String getCacheFingerprint(Rectangle rect) {
+        StringBuilder sb = new StringBuilder(createEngineKey().toString());
+        sb.append(renderedFormat);
+        if (rect != null && !rect.isEmpty()) {
+            sb.append(String.format("[rect=%d,%d,%d,%d, margin=%d]", rect.x, rect.y, rect.width, rect.height, regionMargin));
+        }
+        return sb.toString();
+    }
+
+    private TessBaseAPI createHandle() {
+        TessBaseAPI handle = api.TessBaseAPICreate();
         StringArray sarray = new StringArray(configList.toArray(new String[0]));
         PointerByReference configs = new PointerByReference();
         configs.setPointer(sarray);
@@ -261,12 +1033,14 @@ public class Tesseract implements ITesseract {
         if (psm > -1) {
             api.TessBaseAPISetPageSegMode(handle, psm);
         }
+        return handle;
     }
 
     /**
      * Sets Tesseract's internal parameters.
      */
     public void setTessVariables() {
+        TessBaseAPI handle = getHandle();
         Enumeration<?> em = prop.propertyNames();
         while (em.hasMoreElements()) {
             String key = (String) em.nextElement();
@@ -274,6 +1048,32 @@ public class Tesseract implements ITesseract {
         }
     }
 
+    /**
+     * Reads the current value of a variable of an engine.
+     *
+     * @param handle the engine
+     * @param name variable name
+     * @return the value, or <code>null</code> if there is no such variable
+     */
+    private String getTessVariable(TessBaseAPI handle, String name) {
+        String value = api.TessBaseAPIGetStringVariable(handle, name);
+        if (value != null) {
+            return value;
+        }
+        IntBuffer intValue = IntBuffer.allocate(1);
+        if (api.TessBaseAPIGetIntVariable(handle, name, intValue) != ITessAPI.FALSE) {
+            return String.valueOf(intValue.get(0));
+        }
+        if (api.TessBaseAPIGetBoolVariable(handle, name, intValue) != ITessAPI.FALSE) {
+            return intValue.get(0) != ITessAPI.FALSE ? "1" : "0";
+        }
+        DoubleBuffer doubleValue = DoubleBuffer.allocate(1);
+        if (api.TessBaseAPIGetDoubleVariable(handle, name, doubleValue) != ITessAPI.FALSE) {
+            return String.valueOf(doubleValue.get(0));
+        }
+        return null;
+    }
+
     /**
      * A wrapper for {@link #setImage(int, int, ByteBuffer, Rectangle, int)}.
      *
@@ -282,8 +1082,36 @@ public class Tesseract implements ITesseract {
      * @throws java.io.IOException
      */
     public void setImage(BufferedImage image, Rectangle rect) throws IOException {
-        setImage(image.getWidth(), image.getHeight(), ImageIOHelper.convertImageData(image), rect, image
-                .getColorModel().getPixelSize());
+        Rectangle region = new Rectangle(0, 0, image.getWidth(), image.getHeight());
+        int margin = regionMargin;
+        if (margin >= 0 && rect != null && !rect.isEmpty()) {
+            Rectangle grown = new Rectangle(rect);
+            grown.grow(margin, margin);
+            Rectangle crop = grown.intersection(region);
+            if (!crop.isEmpty()) {
+                region = crop;
+                rect = rect.intersection(crop);
+                rect.translate(-crop.x, -crop.y);
+            }
+        }
+
+        RasterConverter converter = RasterConverter.forImage(image);
+        DirectBufferPool bufferPool = DirectBufferPool.getDefault();
+        ByteBuffer buf = bufferPool.acquire(converter.getBytesPerLine(region.width) * region.height);
+        try {
+            converter.pack(image, region.x, region.y, region.width, region.height, buf);
+            buf.flip();
+            setImage(region.width, region.height, buf, rect, converter.getBitsPerPixel());
+        } finally {
+            // SetImage copies the pixels into the engine's own image
+            bufferPool.release(buf);
+        }
+        if (region.x != 0 || region.y != 0 || region.width != image.getWidth() || region.height != image.getHeight()) {
+            // box coordinates depend on the height of the upload, not only
+            // on its origin
+            threadImageRegion.set(region);
+            threadImageSize.set(new Dimension(image.getWidth(), image.getHeight()));
+        }
     }
 
     /**
@@ -301,6 +1129,9 @@ public class Tesseract implements ITesseract {
     public void setImage(int xsize, int ysize, ByteBuffer buf, Rectangle rect, int bpp) {
         int bytespp = bpp / 8;
         int bytespl = (int) Math.ceil(xsize * bpp / 8.0);
+        TessBaseAPI handle = getHandle();
+        threadImageRegion.remove();
+        threadImageSize.remove();
         api.TessBaseAPISetImage(handle, buf, xsize, ysize, bytespp, bytespl);
 
         if (rect != null && !rect.isEmpty()) {
@@ -308,6 +1139,48 @@ public class Tesseract implements ITesseract {
         }
     }
 
+    /**
+     * Runs the recognition on the current image with a progress monitor. The
+     * cancellation token is checked from within the engine, and the progress
+     * is reported to the progress listener, if any. Text getters called
+     * afterwards return the results of this recognition.
+     *
+     * @param token cancellation token; may be <code>null</code>
+     * @param pageNum page number, reported with the progress
+     * @throws TesseractException if cancelled or the recognition failed
+     */
+    public void recognize(CancellationToken token, int pageNum) throws TesseractException {
+        if (token != null && token.isCancelled()) {
+            throw new TesseractException("OCR cancelled");
+        }
+        ETEXT_DESC monitor = token != null ? token.createMonitor() : new ETEXT_DESC();
+        ProgressService.Listener listener = progressListener;
+        ProgressService.Job job = null;
+        if (listener != null) {
+            ProgressService service = progressService;
+            job = (service != null ? service : ProgressService.getDefault()).register(monitor, pageNum, listener);
+        }
+
+        int result = -1;
+        try {
+            result = api.TessBaseAPIRecognize(getHandle(), monitor);
+        } finally {
+            if (job != null) {
+                job.unregister();
+            }
+            if (result != 0 && (token == null || !token.isCancelled())) {
+                // the engine state is unknown after a failed recognition
+                threadEngineFailed.set(Boolean.TRUE);
+            }
+        }
+        if (token != null && token.isCancelled()) {
+            throw new TesseractException("OCR cancelled");
+        }
+        if (result != 0) {
+            throw new TesseractException("OCR failed");
+        }
+    }
+
     /**
      * Gets recognized text.
      *
@@ -317,6 +1190,7 @@ public class Tesseract implements ITesseract {
      * @return the recognized text
      */
     public String getOCRText(String filename, int pageNum) {
+        TessBaseAPI handle = getHandle();
         if (filename != null && !filename.isEmpty()) {
             api.TessBaseAPISetInputName(handle, filename);
         }
@@ -324,14 +1198,322 @@ public class Tesseract implements ITesseract {
         Pointer utf8Text = renderedFormat == RenderedFormat.HOCR ? api.TessBaseAPIGetHOCRText(handle, pageNum - 1) : api.TessBaseAPIGetUTF8Text(handle);
         String str = utf8Text.getString(0);
         api.TessDeleteText(utf8Text);
+        Rectangle uploaded = threadImageRegion.get();
+        if (uploaded != null && renderedFormat == RenderedFormat.HOCR) {
+            Dimension size = threadImageSize.get();
+            str = Utils.translateBoundingBoxes(str, uploaded.x, uploaded.y, size.width, size.height);
+        }
         return str;
     }
 
     /**
-     * Releases all of the native resources used by this instance.
+     * Gets the elements found by the last recognition, walking the result
+     * iterator once. The iterator is deleted before returning.
+     *
+     * @param pageIteratorLevel TessPageIteratorLevel enum
+     * @return the elements at the given level
+     */
+    public List<Word> getWords(int pageIteratorLevel) {
+        TessBaseAPI handle = getHandle();
+        List<Word> words = new ArrayList<Word>();
+        TessResultIterator ri = api.TessBaseAPIGetIterator(handle);
+        if (ri == null) {
+            return words; // nothing recognized
+        }
+
+        try {
+            TessPageIterator pi = api.TessResultIteratorGetPageIterator(ri);
+            api.TessPageIteratorBegin(pi);
+            Rectangle uploaded = threadImageRegion.get();
+            int dx = uploaded != null ? uploaded.x : 0;
+            int dy = uploaded != null ? uploaded.y : 0;
+            boolean wordLevel = pageIteratorLevel == TessPageIteratorLevel.RIL_WORD
+                    || pageIteratorLevel == TessPageIteratorLevel.RIL_SYMBOL;
+            IntBuffer left = IntBuffer.allocate(1);
+            IntBuffer top = IntBuffer.allocate(1);
+            IntBuffer right = IntBuffer.allocate(1);
+            IntBuffer bottom = IntBuffer.allocate(1);
+            IntBuffer bold = IntBuffer.allocate(1);
+            IntBuffer italic = IntBuffer.allocate(1);
+            IntBuffer underlined = IntBuffer.allocate(1);
+            IntBuffer monospace = IntBuffer.allocate(1);
+            IntBuffer serif = IntBuffer.allocate(1);
+            IntBuffer smallCaps = IntBuffer.allocate(1);
+            IntBuffer pointSize = IntBuffer.allocate(1);
+            IntBuffer fontId = IntBuffer.allocate(1);
+
+            do {
+                Pointer ptr = api.TessResultIteratorGetUTF8Text(ri, pageIteratorLevel);
+                if (ptr == null) {
+                    continue; // empty element
+                }
+                String text = ptr.getString(0);
+                api.TessDeleteText(ptr);
+                float confidence = api.TessResultIteratorConfidence(ri, pageIteratorLevel);
+
+                api.TessPageIteratorBoundingBox(pi, pageIteratorLevel, left, top, right, bottom);
+                Rectangle rect = new Rectangle(left.get(0) + dx, top.get(0) + dy, right.get(0) - left.get(0), bottom.get(0) - top.get(0));
+
+                Line2D baseline = null;
+                if (api.TessPageIteratorBaseline(pi, pageIteratorLevel, left, top, right, bottom) == ITessAPI.TRUE) {
+                    baseline = new Line2D.Float(left.get(0) + dx, top.get(0) + dy, right.get(0) + dx, bottom.get(0) + dy);
+                }
+
+                Word.FontAttributes fontAttributes = null;
+                if (wordLevel) {
+                    String fontName = api.TessResultIteratorWordFontAttributes(ri, bold, italic, underlined, monospace, serif, smallCaps, pointSize, fontId);
+                    if (fontName != null) {
+                        fontAttributes = new Word.FontAttributes(fontName, bold.get(0) == ITessAPI.TRUE, italic.get(0) == ITessAPI.TRUE,
+                                underlined.get(0) == ITessAPI.TRUE, monospace.get(0) == ITessAPI.TRUE, serif.get(0) == ITessAPI.TRUE,
+                                smallCaps.get(0) == ITessAPI.TRUE, pointSize.get(0), fontId.get(0));
+                    }
+                }
+
+                words.add(new Word(text, confidence, rect, baseline, fontAttributes));
+            } while (api.TessPageIteratorNext(pi, pageIteratorLevel) == ITessAPI.TRUE);
+        } finally {
+            api.TessResultIteratorDelete(ri);
+        }
+
+        return words;
+    }
+
+    /**
+     * Gets the elements found by the last recognition in columnar form,
+     * walking the result iterator once at the given level. Enclosing blocks,
+     * paragraphs and lines are recorded as the iterator enters them. The
+     * iterator is deleted before returning. With batched extraction, words
+     * are read from the hOCR text instead.
+     *
+     * @param pageIteratorLevel TessPageIteratorLevel enum; the finest level
+     * collected
+     * @return the elements of the page
+     * @see #setBatchedExtraction(boolean)
+     */
+    public OcrPageResult getPageResult(int pageIteratorLevel) {
+        if (batchedExtraction && pageIteratorLevel == TessPageIteratorLevel.RIL_WORD) {
+            return getPageResultFromHocr();
+        }
+
+        TessBaseAPI handle = getHandle();
+        OcrPageResult result = new OcrPageResult();
+        TessResultIterator ri = api.TessBaseAPIGetIterator(handle);
+        if (ri == null) {
+            return result; // nothing recognized
+        }
+
+        try {
+            TessPageIterator pi = api.TessResultIteratorGetPageIterator(ri);
+            api.TessPageIteratorBegin(pi);
+            Rectangle uploaded = threadImageRegion.get();
+            int dx = uploaded != null ? uploaded.x : 0;
+            int dy = uploaded != null ? uploaded.y : 0;
+            boolean wordLevel = pageIteratorLevel == TessPageIteratorLevel.RIL_WORD
+                    || pageIteratorLevel == TessPageIteratorLevel.RIL_SYMBOL;
+            IntBuffer left = IntBuffer.allocate(1);
+            IntBuffer top = IntBuffer.allocate(1);
+            IntBuffer right = IntBuffer.allocate(1);
+            IntBuffer bottom = IntBuffer.allocate(1);
+            IntBuffer bold = IntBuffer.allocate(1);
+            IntBuffer italic = IntBuffer.allocate(1);
+            IntBuffer underlined = IntBuffer.allocate(1);
+            IntBuffer monospace = IntBuffer.allocate(1);
+            IntBuffer serif = IntBuffer.allocate(1);
+            IntBuffer smallCaps = IntBuffer.allocate(1);
+            IntBuffer pointSize = IntBuffer.allocate(1);
+            IntBuffer fontId = IntBuffer.allocate(1);
+
+            do {
+                for (int level = TessPageIteratorLevel.RIL_BLOCK; level < pageIteratorLevel; level++) {
+                    if (api.TessPageIteratorIsAtBeginningOf(pi, level) == ITessAPI.TRUE) {
+                        api.TessPageIteratorBoundingBox(pi, level, left, top, right, bottom);
+                        result.add(level, left.get(0) + dx, top.get(0) + dy, right.get(0) + dx, bottom.get(0) + dy,
+                                api.TessResultIteratorConfidence(ri, level), 0, null);
+                    }
+                }
+
+                int flags = 0;
+                if (wordLevel) {
+                    if (api.TessResultIteratorWordFontAttributes(ri, bold, italic, underlined, monospace, serif, smallCaps, pointSize, fontId) != null) {
+                        flags |= bold.get(0) == ITessAPI.TRUE ? OcrPageResult.FLAG_BOLD : 0;
+                        flags |= italic.get(0) == ITessAPI.TRUE ? OcrPageResult.FLAG_ITALIC : 0;
+                        flags |= underlined.get(0) == ITessAPI.TRUE ? OcrPageResult.FLAG_UNDERLINED : 0;
+                        flags |= monospace.get(0) == ITessAPI.TRUE ? OcrPageResult.FLAG_MONOSPACE : 0;
+                        flags |= serif.get(0) == ITessAPI.TRUE ? OcrPageResult.FLAG_SERIF : 0;
+                        flags |= smallCaps.get(0) == ITessAPI.TRUE ? OcrPageResult.FLAG_SMALLCAPS : 0;
+                    }
+                    if (api.TessResultIteratorWordIsFromDictionary(ri) == ITessAPI.TRUE) {
+                        flags |= OcrPageResult.FLAG_FROM_DICTIONARY;
+                    }
+                }
+
+                api.TessPageIteratorBoundingBox(pi, pageIteratorLevel, left, top, right, bottom);
+                Pointer ptr = api.TessResultIteratorGetUTF8Text(ri, pageIteratorLevel);
+                try {
+                    result.add(pageIteratorLevel, left.get(0) + dx, top.get(0) + dy, right.get(0) + dx, bottom.get(0) + dy,
+                            api.TessResultIteratorConfidence(ri, pageIteratorLevel), flags, ptr);
+                } finally {
+                    if (ptr != null) {
+                        api.TessDeleteText(ptr);
+                    }
+                }
+            } while (api.TessPageIteratorNext(pi, pageIteratorLevel) == ITessAPI.TRUE);
+        } finally {
+            api.TessResultIteratorDelete(ri);
+        }
+
+        return result;
+    }
+
+    /**
+     * Gets the blocks, paragraphs, lines and words found by the last
+     * recognition from its hOCR text.
+     *
+     * @return the elements of the page
+     */
+    private OcrPageResult getPageResultFromHocr() {
+        OcrPageResult result = new OcrPageResult();
+        Pointer hocr = api.TessBaseAPIGetHOCRText(getHandle(), 0);
+        if (hocr == null) {
+            return result; // nothing recognized
+        }
+        byte[] bytes;
+        try {
+            bytes = hocr.getByteArray(0, (int) hocr.indexOf(0, (byte) 0));
+        } finally {
+            api.TessDeleteText(hocr);
+        }
+
+        Rectangle uploaded = threadImageRegion.get();
+        HocrPageParser.parse(bytes, bytes.length, uploaded != null ? uploaded.x : 0, uploaded != null ? uploaded.y : 0, result);
+        return result;
+    }
+
+    /**
+     * Gets the results of the last recognition in several formats without
+     * recognizing again.
+     *
+     * @param formats the text formats to get
+     * @param wordConfidences true to get the confidence of each word as well
+     * @param imageHeight height of the whole image, for box coordinates
+     * @return the results
+     */
+    private OcrOutput getOutput(Set<RenderedFormat> formats, boolean wordConfidences, int imageHeight) {
+        TessBaseAPI handle = getHandle();
+        Rectangle uploaded = threadImageRegion.get();
+        Map<RenderedFormat, String> texts = new EnumMap<RenderedFormat, String>(RenderedFormat.class);
+
+        for (RenderedFormat format : formats) {
+            Pointer ptr;
+            switch (format) {
+                case HOCR:
+                    ptr = api.TessBaseAPIGetHOCRText(handle, 0);
+                    break;
+                case UNLV:
+                    ptr = api.TessBaseAPIGetUNLVText(handle);
+                    break;
+                case BOX:
+                    ptr = api.TessBaseAPIGetBoxText(handle, 0);
+                    break;
+                default:
+                    ptr = api.TessBaseAPIGetUTF8Text(handle);
+            }
+            String text = ptr.getString(0);
+            api.TessDeleteText(ptr);
+
+            if (format == RenderedFormat.HOCR) {
+                if (uploaded != null) {
+                    Dimension size = threadImageSize.get();
+                    text = Utils.translateBoundingBoxes(text, uploaded.x, uploaded.y, size.width, size.height);
+                }
+                text = htmlBeginTag + text + htmlEndTag;
+            } else if (format == RenderedFormat.BOX && uploaded != null) {
+                text = Utils.translateBoxText(text, uploaded.x, imageHeight - uploaded.y - uploaded.height);
+            }
+            texts.put(format, text);
+        }
+
+        return new OcrOutput(texts, wordConfidences ? getWordConfidences() : null);
+    }
+
+    /**
+     * Gets the mean confidence of the words found by the last recognition.
+     *
+     * @return the confidence, 0 to 100
+     */
+    public int getMeanConfidence() {
+        return api.TessBaseAPIMeanTextConf(getHandle());
+    }
+
+    /**
+     * Gets the confidence of each word found by the last recognition.
+     *
+     * @return the confidences, 0 to 100
+     */
+    public int[] getWordConfidences() {
+        IntByReference confidences = api.TessBaseAPIAllWordConfidences(getHandle());
+        if (confidences == null) {
+            return new int[0];
+        }
+        Pointer ptr = confidences.getPointer();
+        int count = 0;
+        while (ptr.getInt(4L * count) != -1) {
+            count++; // the array ends with -1
+        }
+        int[] result = ptr.getIntArray(0, count);
+        api.TessDeleteIntArray(ptr.getByteBuffer(0, 4L * (count + 1)).asIntBuffer());
+        return result;
+    }
+
+    /**
+     * Releases the native resources of the current OCR call: returns the
+     * leased engine to the pool it was leased from, clears a kept-alive engine, or deletes the
+     * engine otherwise. An engine whose recognition failed is deleted rather
+     * than reused.
      */
     public void dispose() {
-        api.TessBaseAPIDelete(handle);
+        TessBaseAPI handle = getHandle();
+        boolean failed = threadEngineFailed.get() != null;
+        threadImageRegion.remove();
+        threadImageSize.remove();
+        threadEngineFailed.remove();
+        if (handle != null && keptHandles.contains(handle)) {
+            if (keepAlive && !failed) {
+                api.TessBaseAPIClear(handle);
+                return;
+            }
+            threadHandle.remove();
+            threadKeepAliveKey.remove();
+            if (keptHandles.remove(handle)) {
+                api.TessBaseAPIDelete(handle);
+            }
+            return;
+        }
+
+        TesseractEnginePool pool = threadEnginePool.get();
+        TesseractEnginePool.Key engineKey = threadEngineKey.get();
+        threadHandle.remove();
+        threadEnginePool.remove();
+        threadEngineKey.remove();
+        if (pool != null && failed) {
+            pool.invalidate(engineKey, handle);
+        } else if (pool != null) {
+            pool.release(engineKey, handle);
+        } else {
+            api.TessBaseAPIDelete(handle);
+        }
     }
 
+    /**
+     * Frees the engines kept alive by {@link #setKeepAlive(boolean)}. Must not
+     * be called while OCR calls are in progress.
+     */
+    @Override
+    public void close() {
+        for (TessBaseAPI handle : keptHandles) {
+            if (keptHandles.remove(handle)) {
+                api.TessBaseAPIDelete(handle);
+            }
+        }
+    }
 }
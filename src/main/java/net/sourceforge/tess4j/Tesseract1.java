@@ -17,20 +17,16 @@ package net.sourceforge.tess4j;
 
 import java.awt.Rectangle;
 import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.nio.ByteBuffer;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Enumeration;
 import java.util.List;
-import java.util.Properties;
-import java.util.logging.Level;
-import java.util.logging.Logger;
-
-import net.sourceforge.tess4j.util.ImageIOHelper;
-
-import com.sun.jna.Pointer;
-import com.sun.jna.StringArray;
-import com.sun.jna.ptr.PointerByReference;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 
 /**
  * An object layer on top of <code>TessAPI1</code>, provides character
@@ -46,29 +42,31 @@ import com.sun.jna.ptr.PointerByReference;
  * Any program that uses the library will need to ensure that the required
  * libraries (the <code>.jar</code> files for <code>jna</code>,
  * <code>jai-imageio</code>, and <code>ghost4j</code>) are in its compile and
- * run-time <code>classpath</code>.
+ * run-time <code>classpath</code>.<br>
+ * <br>
+ * A configured instance may be shared by several threads; each OCR call keeps
+ * its native handle in thread-local state. Combine with
+ * {@link #setEnginePool(TesseractEnginePool)} to avoid initializing a new
+ * engine per call.<br>
+ * <br>
+ * The OCR logic is that of {@link Tesseract} over {@link DirectTessAPI}, to
+ * which all calls are delegated. The delegate calls back the protected
+ * methods of this class for each step of a recognition, so subclasses can
+ * override them; the class extends <code>TessAPI1</code> so that subclasses
+ * can make native calls of their own on {@link #getHandle()}.
  */
-public class Tesseract1 extends TessAPI1 implements ITesseract {
-
-    private String language = "eng";
-    private String datapath = "./";
-    private RenderedFormat renderedFormat = RenderedFormat.TEXT;
-    private int psm = -1;
-    private int ocrEngineMode = TessOcrEngineMode.OEM_DEFAULT;
-    private final Properties prop = new Properties();
-    private final List<String> configList = new ArrayList<String>();
+public class Tesseract1 extends TessAPI1 implements ITesseract, AutoCloseable {
 
-    private TessBaseAPI handle;
-
-    private final static Logger logger = Logger.getLogger(Tesseract1.class.getName());
+    private final Core core = new Core();
 
     /**
-     * Returns API handle.
+     * Returns the API handle of the OCR call in progress on the current
+     * thread.
      *
      * @return handle
      */
     public TessBaseAPI getHandle() {
-        return handle;
+        return core.getHandle();
     }
 
     /**
@@ -76,7 +74,7 @@ public class Tesseract1 extends TessAPI1 implements ITesseract {
      */
     @Override
     public void setDatapath(String datapath) {
-        this.datapath = datapath;
+        core.setDatapath(datapath);
     }
 
     /**
@@ -84,7 +82,7 @@ public class Tesseract1 extends TessAPI1 implements ITesseract {
      */
     @Override
     public void setLanguage(String language) {
-        this.language = language;
+        core.setLanguage(language);
     }
 
     /**
@@ -92,7 +90,7 @@ public class Tesseract1 extends TessAPI1 implements ITesseract {
      */
     @Override
     public void setOcrEngineMode(int ocrEngineMode) {
-        this.ocrEngineMode = ocrEngineMode;
+        core.setOcrEngineMode(ocrEngineMode);
     }
 
     /**
@@ -100,7 +98,7 @@ public class Tesseract1 extends TessAPI1 implements ITesseract {
      */
     @Override
     public void setPageSegMode(int mode) {
-        this.psm = mode;
+        core.setPageSegMode(mode);
     }
 
     /**
@@ -109,8 +107,7 @@ public class Tesseract1 extends TessAPI1 implements ITesseract {
      * @param hocr to enable or disable hocr output
      */
     public void setHocr(boolean hocr) {
-        this.renderedFormat = hocr ? RenderedFormat.HOCR : RenderedFormat.TEXT;
-        prop.setProperty("tessedit_create_hocr", hocr ? "1" : "0");
+        core.setHocr(hocr);
     }
 
     /**
@@ -118,7 +115,7 @@ public class Tesseract1 extends TessAPI1 implements ITesseract {
      */
     @Override
     public void setTessVariable(String key, String value) {
-        prop.setProperty(key, value);
+        core.setTessVariable(key, value);
     }
 
     /**
@@ -126,10 +123,127 @@ public class Tesseract1 extends TessAPI1 implements ITesseract {
      */
     @Override
     public void setConfigs(List<String> configs) {
-        configList.clear();
-        if (configs != null) {
-            configList.addAll(configs);
-        }
+        core.setConfigs(configs);
+    }
+
+    /**
+     * Sets a pool of initialized engines to lease from. With a pool, every
+     * OCR call borrows a warm engine matching the current configuration
+     * instead of creating and initializing a new one. The pooled engines are
+     * created and deleted through the pool's binding.
+     *
+     * @param enginePool the engine pool; <code>null</code> to create a new
+     * engine for each call
+     */
+    public void setEnginePool(TesseractEnginePool enginePool) {
+        core.setEnginePool(enginePool);
+    }
+
+    /**
+     * Keeps the initialized engine of each calling thread alive between OCR
+     * calls. Only the recognition results are cleared after a call; the
+     * engine is re-initialized only when the configuration changes. The
+     * engines are freed by {@link #close()}. Ignored when an engine pool is
+     * set.
+     *
+     * @param keepAlive to enable or disable persistent engines
+     */
+    public void setKeepAlive(boolean keepAlive) {
+        core.setKeepAlive(keepAlive);
+    }
+
+    /**
+     * Uploads only the region of interest, grown by the given margin, instead
+     * of the whole image when OCR is called with a rectangle. Bounding boxes
+     * in hOCR output remain relative to the whole image.
+     *
+     * @param regionMargin number of pixels kept around the region; -1, the
+     * default, uploads the whole image
+     */
+    public void setRegionMargin(int regionMargin) {
+        core.setRegionMargin(regionMargin);
+    }
+
+    /**
+     * Sets an executor to recognize the pages of multi-page documents in
+     * parallel. Each page runs on its own engine in the executor's threads;
+     * the output is merged in page order. The executor should not run the
+     * calling thread's own tasks, or multi-page calls can deadlock.
+     *
+     * @param executor the executor; <code>null</code> to recognize pages one
+     * by one on the calling thread
+     */
+    public void setExecutor(ExecutorService executor) {
+        core.setExecutor(executor);
+    }
+
+    /**
+     * Sets the executor running the asynchronous <code>doOCRAsync</code>
+     * calls. It should be bounded, as every task occupies an engine for the
+     * whole recognition.
+     *
+     * @param asyncExecutor the executor; <code>null</code> for the shared
+     * {@link TesseractExecutors#getDefaultExecutor()}
+     */
+    public void setAsyncExecutor(Executor asyncExecutor) {
+        core.setAsyncExecutor(asyncExecutor);
+    }
+
+    /**
+     * Sets a listener for the progress of each recognized page. The event tag
+     * is the page number.
+     *
+     * @param progressListener the listener; <code>null</code> for none
+     */
+    public void setProgressListener(ProgressService.Listener progressListener) {
+        core.setProgressListener(progressListener);
+    }
+
+    /**
+     * Sets the service polling the progress of recognitions.
+     *
+     * @param progressService the service; <code>null</code> for the shared
+     * {@link ProgressService#getDefault()}
+     */
+    public void setProgressService(ProgressService progressService) {
+        core.setProgressService(progressService);
+    }
+
+    /**
+     * Sets a cache for the text of single images. An image already recognized
+     * with the same configuration and region is answered from the cache
+     * without being converted, uploaded or recognized; no progress is
+     * reported for it.
+     *
+     * @param resultCache the cache; <code>null</code> for none
+     */
+    public void setResultCache(OcrResultCache resultCache) {
+        core.setResultCache(resultCache);
+    }
+
+    /**
+     * Sets a coalescer for concurrent calls on identical single images. While
+     * an image is being recognized, calls with the same image, configuration
+     * and region wait for its result instead of recognizing it again. Calls
+     * with a cancellation token are not coalesced.
+     *
+     * @param requestCoalescer the coalescer; <code>null</code> for none
+     */
+    public void setRequestCoalescer(OcrRequestCoalescer requestCoalescer) {
+        core.setRequestCoalescer(requestCoalescer);
+    }
+
+    /**
+     * Collects word-level page results from the hOCR text of the page,
+     * fetched in one native call, instead of walking the result iterator
+     * with several calls per word. Confidences are then whole numbers, and
+     * the font flags are limited to bold and italic; other levels are always
+     * collected through the iterator.
+     *
+     * @param batchedExtraction to enable or disable batched extraction
+     */
+    public void setBatchedExtraction(boolean batchedExtraction) {
+        core.setBatchedExtraction(batchedExtraction);
     }
 
     /**
@@ -137,7 +251,7 @@ public class Tesseract1 extends TessAPI1 implements ITesseract {
      */
     @Override
     public String doOCR(BufferedImage bi) throws TesseractException {
-        return doOCR(bi, null);
+        return core.doOCR(bi);
     }
 
     /**
@@ -145,12 +259,63 @@ public class Tesseract1 extends TessAPI1 implements ITesseract {
      */
     @Override
     public String doOCR(BufferedImage bi, Rectangle rect) throws TesseractException {
-        try {
-            return doOCR(Arrays.asList(bi), rect);
-        } catch (Exception e) {
-            logger.log(Level.SEVERE, e.getMessage(), e);
-            throw new TesseractException(e);
-        }
+        return core.doOCR(bi, rect);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<String> doOCR(BufferedImage bi, List<Rectangle> rects) throws TesseractException {
+        return core.doOCR(bi, rects);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<String> doOCRRegions(BufferedImage bi, List<OcrRegion> regions) throws TesseractException {
+        return core.doOCRRegions(bi, regions);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Word> getWords(BufferedImage bi, int pageIteratorLevel) throws TesseractException {
+        return core.getWords(bi, pageIteratorLevel);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public OcrPageResult getPageResult(BufferedImage bi, int pageIteratorLevel) throws TesseractException {
+        return core.getPageResult(bi, pageIteratorLevel);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public OcrOutput getOutput(BufferedImage bi, Rectangle rect, Set<RenderedFormat> formats, boolean wordConfidences) throws TesseractException {
+        return core.getOutput(bi, rect, formats, wordConfidences);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getMeanConfidence(BufferedImage bi, Rectangle rect) throws TesseractException {
+        return core.getMeanConfidence(bi, rect);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int[] getWordConfidences(BufferedImage bi, Rectangle rect) throws TesseractException {
+        return core.getWordConfidences(bi, rect);
     }
 
     /**
@@ -158,45 +323,68 @@ public class Tesseract1 extends TessAPI1 implements ITesseract {
      */
     @Override
     public String doOCR(List<BufferedImage> imageList, Rectangle rect) throws TesseractException {
-		return doOCR(imageList, null, rect);
-    	 
+        return core.doOCR(imageList, rect);
     }
-    
+
     /**
      * {@inheritDoc}
      */
-	@Override
-	public String doOCR(List<BufferedImage> imageList, String filename,
-			Rectangle rect) throws TesseractException {
-		init();
-        setTessVariables();
+    @Override
+    public String doOCR(List<BufferedImage> imageList, String filename, Rectangle rect) throws TesseractException {
+        return core.doOCR(imageList, filename, rect);
+    }
 
-        try {
-            StringBuilder sb = new StringBuilder();
-            int pageNum = 0;
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String doOCR(BufferedImage bi, Rectangle rect, CancellationToken token) throws TesseractException {
+        return core.doOCR(bi, rect, token);
+    }
 
-            for (BufferedImage img : imageList) {
-                pageNum++;
-                setImage(img, rect);
-				 sb.append(getOCRText(filename, pageNum));
-            }
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String doOCR(List<BufferedImage> imageList, String filename, Rectangle rect, CancellationToken token) throws TesseractException {
+        return core.doOCR(imageList, filename, rect, token);
+    }
 
-            if (renderedFormat == RenderedFormat.HOCR) {
-                sb.insert(0, htmlBeginTag).append(htmlEndTag);
-            }
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void writeOCR(List<BufferedImage> imageList, String filename, Rectangle rect, Writer out) throws TesseractException {
+        core.writeOCR(imageList, filename, rect, out);
+    }
 
-            return sb.toString();
-        } finally {
-            dispose();
-        }
-	}
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void writeOCR(List<BufferedImage> imageList, String filename, Rectangle rect, OutputStream out) throws TesseractException {
+        core.writeOCR(imageList, filename, rect, out);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String doOCR(OcrPageSource pages, String filename, Rectangle rect) throws TesseractException {
+        return core.doOCR(pages, filename, rect);
+    }
 
-	/**
+    /**
      * {@inheritDoc}
      */
+    @Override
+    public void writeOCR(OcrPageSource pages, String filename, Rectangle rect, Writer out) throws TesseractException {
+        core.writeOCR(pages, filename, rect, out);
+    }
+
     @Override
     public String doOCR(int xsize, int ysize, ByteBuffer buf, Rectangle rect, int bpp) throws TesseractException {
-        return doOCR(xsize, ysize, buf, null, rect, bpp);
+        return core.doOCR(xsize, ysize, buf, rect, bpp);
     }
 
     /**
@@ -204,43 +392,74 @@ public class Tesseract1 extends TessAPI1 implements ITesseract {
      */
     @Override
     public String doOCR(int xsize, int ysize, ByteBuffer buf, String filename, Rectangle rect, int bpp) throws TesseractException {
-        init();
-        setTessVariables();
+        return core.doOCR(xsize, ysize, buf, filename, rect, bpp);
+    }
 
-        try {
-            setImage(xsize, ysize, buf, rect, bpp);
-            return getOCRText(filename, 1);
-        } catch (Exception e) {
-            logger.log(Level.SEVERE, e.getMessage(), e);
-            throw new TesseractException(e);
-        } finally {
-            dispose();
-        }
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<String> doOCRAsync(BufferedImage bi) {
+        return core.doOCRAsync(bi);
     }
 
     /**
-     * Initializes Tesseract engine.
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<String> doOCRAsync(BufferedImage bi, Rectangle rect) {
+        return core.doOCRAsync(bi, rect);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<String> doOCRAsync(List<BufferedImage> imageList, Rectangle rect) {
+        return core.doOCRAsync(imageList, rect);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<String> doOCRAsync(List<BufferedImage> imageList, String filename, Rectangle rect) {
+        return core.doOCRAsync(imageList, filename, rect);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<String> doOCRAsync(int xsize, int ysize, ByteBuffer buf, Rectangle rect, int bpp) {
+        return core.doOCRAsync(xsize, ysize, buf, rect, bpp);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<String> doOCRAsync(int xsize, int ysize, ByteBuffer buf, String filename, Rectangle rect, int bpp) {
+        return core.doOCRAsync(xsize, ysize, buf, filename, rect, bpp);
+    }
+
+    /**
+     * Initializes Tesseract engine, or leases one from the engine pool if
+     * set.
+     *
+     * @throws IllegalStateException if no pooled engine could be obtained;
+     * the cause is the pool's <code>TesseractException</code>, which the OCR
+     * methods throw instead
      */
     protected void init() {
-        handle = TessBaseAPICreate();
-        StringArray sarray = new StringArray(configList.toArray(new String[0]));
-        PointerByReference configs = new PointerByReference();
-        configs.setPointer(sarray);
-        TessBaseAPIInit1(handle, datapath, language, ocrEngineMode, configs, configList.size());
-        if (psm > -1) {
-            TessBaseAPISetPageSegMode(handle, psm);
-        }
+        core.baseInit();
     }
 
     /**
      * Sets Tesseract's internal parameters.
      */
     protected void setTessVariables() {
-        Enumeration<?> em = prop.propertyNames();
-        while (em.hasMoreElements()) {
-            String key = (String) em.nextElement();
-            TessBaseAPISetVariable(handle, key, prop.getProperty(key));
-        }
+        core.baseSetTessVariables();
     }
 
     /**
@@ -252,9 +471,13 @@ public class Tesseract1 extends TessAPI1 implements ITesseract {
      * the whole image.
      */
     protected void setImage(BufferedImage buf, Rectangle rect) {
-    	setImage(buf.getWidth(), buf.getHeight(), ImageIOHelper.convertImageData(buf), rect, buf.getColorModel().getPixelSize());
+        try {
+            core.baseSetImage(buf, rect);
+        } catch (IOException ioe) {
+            throw new UncheckedIOException(ioe);
+        }
     }
-    
+
     /**
      * Sets image to be processed.
      *
@@ -268,13 +491,21 @@ public class Tesseract1 extends TessAPI1 implements ITesseract {
      * for binary bitmap, 8 for gray, and 24 for color RGB.
      */
     protected void setImage(int xsize, int ysize, ByteBuffer buf, Rectangle rect, int bpp) {
-        int bytespp = bpp / 8;
-        int bytespl = (int) Math.ceil(xsize * bpp / 8.0);
-        TessBaseAPISetImage(handle, buf, xsize, ysize, bytespp, bytespl);
+        core.baseSetImage(xsize, ysize, buf, rect, bpp);
+    }
 
-        if (rect != null && !rect.isEmpty()) {
-            TessBaseAPISetRectangle(handle, rect.x, rect.y, rect.width, rect.height);
-        }
+    /**
+     * Runs the recognition on the current image with a progress monitor. The
+     * cancellation token is checked from within the engine, and the progress
+     * is reported to the progress listener, if any. Text getters called
+     * afterwards return the results of this recognition.
+     *
+     * @param token cancellation token; may be <code>null</code>
+     * @param pageNum page number, reported with the progress
+     * @throws TesseractException if cancelled or the recognition failed
+     */
+    protected void recognize(CancellationToken token, int pageNum) throws TesseractException {
+        core.baseRecognize(token, pageNum);
     }
 
     /**
@@ -286,67 +517,182 @@ public class Tesseract1 extends TessAPI1 implements ITesseract {
      * @return the recognized text
      */
     protected String getOCRText(String filename, int pageNum) {
-        if (filename != null && !filename.isEmpty()) {
-            TessBaseAPISetInputName(handle, filename);
-        }
+        return core.baseGetOCRText(filename, pageNum);
+    }
 
-        Pointer utf8Text = renderedFormat == RenderedFormat.HOCR ? TessBaseAPIGetHOCRText(handle, pageNum - 1) : TessBaseAPIGetUTF8Text(handle);
-        String str = utf8Text.getString(0);
-        TessDeleteText(utf8Text);
-        return str;
+    /**
+     * Gets the elements found by the last recognition, walking the result
+     * iterator once. The iterator is deleted before returning.
+     *
+     * @param pageIteratorLevel TessPageIteratorLevel enum
+     * @return the elements at the given level
+     */
+    protected List<Word> getWords(int pageIteratorLevel) {
+        return core.baseGetWords(pageIteratorLevel);
     }
 
     /**
-     * Creates renderers for given formats.
+     * Gets the elements found by the last recognition in columnar form,
+     * walking the result iterator once at the given level. Enclosing blocks,
+     * paragraphs and lines are recorded as the iterator enters them. The
+     * iterator is deleted before returning.
      *
-     * @param outputbase
-     * @param formats
-     * @return
-     */
-    private TessResultRenderer createRenderers(String outputbase, List<RenderedFormat> formats) {
-        TessResultRenderer renderer = null;
-
-        for (RenderedFormat format : formats) {
-            switch (format) {
-                case TEXT:
-                    if (renderer == null) {
-                        renderer = TessTextRendererCreate(outputbase);
-                    } else {
-                        TessResultRendererInsert(renderer, TessTextRendererCreate(outputbase));
-                    }
-                    break;
-                case HOCR:
-                    if (renderer == null) {
-                        renderer = TessHOcrRendererCreate(outputbase);
-                    } else {
-                        TessResultRendererInsert(renderer, TessHOcrRendererCreate(outputbase));
-                    }
-                    break;
-                case BOX:
-                    if (renderer == null) {
-                        renderer = TessBoxTextRendererCreate(outputbase);
-                    } else {
-                        TessResultRendererInsert(renderer, TessBoxTextRendererCreate(outputbase));
-                    }
-                    break;
-                case UNLV:
-                    if (renderer == null) {
-                        renderer = TessUnlvRendererCreate(outputbase);
-                    } else {
-                        TessResultRendererInsert(renderer, TessUnlvRendererCreate(outputbase));
-                    }
-                    break;
-            }
-        }
+     * @param pageIteratorLevel TessPageIteratorLevel enum; the finest level
+     * collected
+     * @return the elements of the page
+     */
+    protected OcrPageResult getPageResult(int pageIteratorLevel) {
+        return core.baseGetPageResult(pageIteratorLevel);
+    }
+
+    /**
+     * Gets the mean confidence of the words found by the last recognition.
+     *
+     * @return the confidence, 0 to 100
+     */
+    protected int getMeanConfidence() {
+        return core.baseGetMeanConfidence();
+    }
 
-        return renderer;
+    /**
+     * Gets the confidence of each word found by the last recognition.
+     *
+     * @return the confidences, 0 to 100
+     */
+    protected int[] getWordConfidences() {
+        return core.baseGetWordConfidences();
     }
 
     /**
-     * Releases all of the native resources used by this instance.
+     * Releases the native resources of the current OCR call: returns the
+     * leased engine to the pool, clears a kept-alive engine, or deletes the
+     * engine otherwise.
      */
     protected void dispose() {
-        TessBaseAPIDelete(handle);
+        core.baseDispose();
+    }
+
+    /**
+     * Frees the engines kept alive by {@link #setKeepAlive(boolean)}. Must not
+     * be called while OCR calls are in progress.
+     */
+    @Override
+    public void close() {
+        core.close();
     }
 
+    /**
+     * The delegate running the OCR logic. Each step is routed through the
+     * overridable methods of the enclosing instance, which come back to the
+     * <code>base</code> methods for the default behavior.
+     */
+    private class Core extends Tesseract {
+
+        Core() {
+            super(DirectTessAPI.getInstance());
+        }
+
+        @Override
+        public void init() {
+            Tesseract1.this.init();
+        }
+
+        void baseInit() {
+            super.init();
+        }
+
+        @Override
+        public void setTessVariables() {
+            Tesseract1.this.setTessVariables();
+        }
+
+        void baseSetTessVariables() {
+            super.setTessVariables();
+        }
+
+        @Override
+        public void setImage(BufferedImage image, Rectangle rect) throws IOException {
+            try {
+                Tesseract1.this.setImage(image, rect);
+            } catch (UncheckedIOException uioe) {
+                throw uioe.getCause();
+            }
+        }
+
+        void baseSetImage(BufferedImage image, Rectangle rect) throws IOException {
+            super.setImage(image, rect);
+        }
+
+        @Override
+        public void setImage(int xsize, int ysize, ByteBuffer buf, Rectangle rect, int bpp) {
+            Tesseract1.this.setImage(xsize, ysize, buf, rect, bpp);
+        }
+
+        void baseSetImage(int xsize, int ysize, ByteBuffer buf, Rectangle rect, int bpp) {
+            super.setImage(xsize, ysize, buf, rect, bpp);
+        }
+
+        @Override
+        public void recognize(CancellationToken token, int pageNum) throws TesseractException {
+            Tesseract1.this.recognize(token, pageNum);
+        }
+
+        void baseRecognize(CancellationToken token, int pageNum) throws TesseractException {
+            super.recognize(token, pageNum);
+        }
+
+        @Override
+        public String getOCRText(String filename, int pageNum) {
+            return Tesseract1.this.getOCRText(filename, pageNum);
+        }
+
+        String baseGetOCRText(String filename, int pageNum) {
+            return super.getOCRText(filename, pageNum);
+        }
+
+        @Override
+        public List<Word> getWords(int pageIteratorLevel) {
+            return Tesseract1.this.getWords(pageIteratorLevel);
+        }
+
+        List<Word> baseGetWords(int pageIteratorLevel) {
+            return super.getWords(pageIteratorLevel);
+        }
+
+        @Override
+        public OcrPageResult getPageResult(int pageIteratorLevel) {
+            return Tesseract1.this.getPageResult(pageIteratorLevel);
+        }
+
+        OcrPageResult baseGetPageResult(int pageIteratorLevel) {
+            return super.getPageResult(pageIteratorLevel);
+        }
+
+        @Override
+        public int getMeanConfidence() {
+            return Tesseract1.this.getMeanConfidence();
+        }
+
+        int baseGetMeanConfidence() {
+            return super.getMeanConfidence();
+        }
+
+        @Override
+        public int[] getWordConfidences() {
+            return Tesseract1.this.getWordConfidences();
+        }
+
+        int[] baseGetWordConfidences() {
+            return super.getWordConfidences();
+        }
+
+        @Override
+        public void dispose() {
+            Tesseract1.this.dispose();
+        }
+
+        void baseDispose() {
+            super.dispose();
+        }
+    }
 }
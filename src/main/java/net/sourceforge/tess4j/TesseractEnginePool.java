@@ -0,0 +1,567 @@
+/**
+ * Copyright @ 2015 Quan Nguyen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.sourceforge.tess4j;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+
+import net.sourceforge.tess4j.ITessAPI.TessBaseAPI;
+
+import com.sun.jna.StringArray;
+import com.sun.jna.ptr.PointerByReference;
+
+/**
+ * A pool of initialized <code>TessBaseAPI</code> handles. Loading the
+ * traineddata in <code>TessBaseAPIInit1</code> is by far the most expensive
+ * part of a short OCR job; the pool keeps warm engines alive between calls and
+ * leases them out per configuration {@link Key}.<br>
+ * <br>
+ * Every engine holds its traineddata in memory, and the key includes the page
+ * segmentation mode and the variables, so each distinct configuration gets
+ * engines of its own. Two limits bound the memory held: <code>maxTotal</code>
+ * engines per configuration, and <code>maxEngines</code> engines in the whole
+ * pool, idle or leased. When the pool is full, creating an engine evicts the
+ * least recently used idle engine of any configuration, or waits for one.
+ * Engines idle for longer than the idle timeout are deleted down to
+ * <code>minIdle</code> per configuration.<br>
+ * <br>
+ * Engines are created, cleared and deleted through the pool's own
+ * {@link TessAPI} binding, by default the direct-mapped one. Native handles
+ * do not depend on the binding, so the pool can serve {@link Tesseract}
+ * instances on either JNA binding, and {@link Tesseract1}; a pool serving a
+ * <code>Tesseract</code> with a mock binding needs the same mock. Results of
+ * the previous lease are released with <code>TessBaseAPIClear</code> before a
+ * handle goes back into the pool.
+ */
+public class TesseractEnginePool implements AutoCloseable {
+
+    /**
+     * Default time to wait for a free engine, in milliseconds.
+     */
+    public static final long DEFAULT_BORROW_TIMEOUT = 30000;
+    /**
+     * Default time after which an idle engine is deleted, in milliseconds.
+     */
+    public static final long DEFAULT_IDLE_TIMEOUT = 300000;
+
+    // interval between eviction attempts while waiting for pool capacity
+    private static final long EVICTION_RETRY_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private final TessAPI api;
+    private final int minIdle;
+    private final int maxTotal;
+    private final long borrowTimeout;
+    private final long idleTimeout;
+    private final ConcurrentMap<Key, Slot> slots = new ConcurrentHashMap<Key, Slot>();
+    // one permit per engine in existence, idle or leased
+    private final Semaphore engines;
+    private final ScheduledExecutorService evictor;
+    private volatile boolean closed;
+
+    private final static Logger logger = Logger.getLogger(TesseractEnginePool.class.getName());
+
+    /**
+     * Creates a pool with no pre-started engines and at most one engine per
+     * available processor, in all.
+     */
+    public TesseractEnginePool() {
+        this(DirectTessAPI.getInstance());
+    }
+
+    /**
+     * Creates a pool on a binding, with no pre-started engines and at most one
+     * engine per available processor, in all.
+     *
+     * @param api the binding engines are created and deleted through
+     */
+    public TesseractEnginePool(TessAPI api) {
+        this(api, 0, Runtime.getRuntime().availableProcessors(), DEFAULT_BORROW_TIMEOUT);
+    }
+
+    /**
+     * Creates a pool on the direct-mapped binding, holding at most
+     * <code>maxTotal</code> engines in all.
+     *
+     * @param minIdle number of engines to initialize up front when a
+     * configuration is first used
+     * @param maxTotal maximum number of engines, idle or leased, per
+     * configuration and in all
+     * @param borrowTimeout maximum time to wait for a free engine, in
+     * milliseconds
+     */
+    public TesseractEnginePool(int minIdle, int maxTotal, long borrowTimeout) {
+        this(DirectTessAPI.getInstance(), minIdle, maxTotal, borrowTimeout);
+    }
+
+    /**
+     * Creates a pool holding at most <code>maxTotal</code> engines in all.
+     *
+     * @param api the binding engines are created and deleted through
+     * @param minIdle number of engines to initialize up front when a
+     * configuration is first used
+     * @param maxTotal maximum number of engines, idle or leased, per
+     * configuration and in all
+     * @param borrowTimeout maximum time to wait for a free engine, in
+     * milliseconds
+     */
+    public TesseractEnginePool(TessAPI api, int minIdle, int maxTotal, long borrowTimeout) {
+        this(api, minIdle, maxTotal, maxTotal, borrowTimeout, DEFAULT_IDLE_TIMEOUT);
+    }
+
+    /**
+     * Creates a pool.
+     *
+     * @param api the binding engines are created and deleted through
+     * @param minIdle number of engines to initialize up front when a
+     * configuration is first used, and to keep past the idle timeout
+     * @param maxTotal maximum number of engines, idle or leased, per
+     * configuration
+     * @param maxEngines maximum number of engines, idle or leased, of all
+     * configurations
+     * @param borrowTimeout maximum time to wait for a free engine, in
+     * milliseconds
+     * @param idleTimeout time after which an idle engine is deleted, in
+     * milliseconds; 0 to keep idle engines until {@link #close()}
+     */
+    public TesseractEnginePool(TessAPI api, int minIdle, int maxTotal, int maxEngines, long borrowTimeout, long idleTimeout) {
+        if (api == null) {
+            throw new IllegalArgumentException("api must not be null");
+        }
+        if (maxTotal < 1) {
+            throw new IllegalArgumentException("maxTotal must be positive");
+        }
+        if (maxEngines < maxTotal) {
+            throw new IllegalArgumentException("maxEngines must be at least maxTotal");
+        }
+        if (minIdle < 0 || minIdle > maxTotal) {
+            throw new IllegalArgumentException("minIdle must be between 0 and maxTotal");
+        }
+        if (idleTimeout < 0) {
+            throw new IllegalArgumentException("idleTimeout must not be negative");
+        }
+        this.api = api;
+        this.minIdle = minIdle;
+        this.maxTotal = maxTotal;
+        this.borrowTimeout = borrowTimeout;
+        this.idleTimeout = idleTimeout;
+        this.engines = new Semaphore(maxEngines);
+
+        if (idleTimeout > 0) {
+            evictor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread t = new Thread(r, "tess4j-engine-evictor");
+                    t.setDaemon(true);
+                    return t;
+                }
+            });
+            long period = Math.max(1, idleTimeout / 2);
+            evictor.scheduleWithFixedDelay(new Runnable() {
+                @Override
+                public void run() {
+                    evictExpired();
+                }
+            }, period, period, TimeUnit.MILLISECONDS);
+        } else {
+            evictor = null;
+        }
+    }
+
+    /**
+     * Leases an initialized engine for the given configuration, creating one
+     * if none is idle and the configuration is below <code>maxTotal</code>.
+     * When the pool holds <code>maxEngines</code> engines, an idle engine of
+     * another configuration is deleted to make room. The first lease of a
+     * configuration pre-starts <code>minIdle</code> engines for it.
+     *
+     * @param key engine configuration
+     * @return an initialized handle; must be handed back through
+     * {@link #release(Key, TessBaseAPI)} or
+     * {@link #invalidate(Key, TessBaseAPI)}
+     * @throws TesseractException if no engine became available within the
+     * borrow timeout, or the engine could not be initialized
+     */
+    public TessBaseAPI borrow(Key key) throws TesseractException {
+        if (closed) {
+            throw new TesseractException("Engine pool is closed");
+        }
+        Slot slot = getSlot(key);
+        if (minIdle > 0 && slot.started.compareAndSet(false, true)) {
+            prestart(key);
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(borrowTimeout);
+        try {
+            if (!slot.permits.tryAcquire(borrowTimeout, TimeUnit.MILLISECONDS)) {
+                throw new TesseractException("Timed out after " + borrowTimeout + " ms waiting for an engine: " + key);
+            }
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new TesseractException(ie);
+        }
+
+        IdleEngine idle = slot.idle.pollFirst();
+        if (idle != null) {
+            return idle.handle;
+        }
+        try {
+            if (!acquireEngine(deadline)) {
+                slot.permits.release();
+                throw new TesseractException("Timed out after " + borrowTimeout + " ms waiting for pool capacity: " + key);
+            }
+        } catch (InterruptedException ie) {
+            slot.permits.release();
+            Thread.currentThread().interrupt();
+            throw new TesseractException(ie);
+        }
+
+        try {
+            return create(key);
+        } catch (TesseractException te) {
+            engines.release();
+            slot.permits.release();
+            throw te;
+        }
+    }
+
+    /**
+     * Returns a leased engine to the pool. Recognition results and the image
+     * of the finished lease are cleared.
+     *
+     * @param key configuration the engine was borrowed for
+     * @param handle the leased handle
+     */
+    public void release(Key key, TessBaseAPI handle) {
+        Slot slot = slots.get(key);
+        if (slot == null) {
+            api.TessBaseAPIDelete(handle);
+            return;
+        }
+
+        if (closed) {
+            api.TessBaseAPIDelete(handle);
+            engines.release();
+        } else {
+            api.TessBaseAPIClear(handle);
+            // most recently used first, its caches are the warmest
+            slot.idle.offerFirst(new IdleEngine(handle));
+        }
+        slot.permits.release();
+    }
+
+    /**
+     * Destroys a leased engine instead of returning it, e.g., after the native
+     * call failed and the engine state is unknown.
+     *
+     * @param key configuration the engine was borrowed for
+     * @param handle the leased handle
+     */
+    public void invalidate(Key key, TessBaseAPI handle) {
+        api.TessBaseAPIDelete(handle);
+        Slot slot = slots.get(key);
+        if (slot != null) {
+            engines.release();
+            slot.permits.release();
+        }
+    }
+
+    /**
+     * Initializes up to <code>minIdle</code> engines for a configuration ahead
+     * of the first request, as far as the pool has room without evicting.
+     *
+     * @param key engine configuration
+     * @throws TesseractException if an engine could not be initialized
+     */
+    public void prestart(Key key) throws TesseractException {
+        Slot slot = getSlot(key);
+        while (slot.idle.size() < minIdle && slot.permits.tryAcquire()) {
+            try {
+                if (!engines.tryAcquire()) {
+                    break;
+                }
+                try {
+                    slot.idle.offerLast(new IdleEngine(create(key)));
+                } catch (TesseractException te) {
+                    engines.release();
+                    throw te;
+                }
+            } finally {
+                slot.permits.release();
+            }
+        }
+    }
+
+    /**
+     * Gets the number of idle engines for a configuration.
+     *
+     * @param key engine configuration
+     * @return idle count
+     */
+    public int getIdleCount(Key key) {
+        Slot slot = slots.get(key);
+        return slot == null ? 0 : slot.idle.size();
+    }
+
+    /**
+     * Gets the number of engines currently leased for a configuration.
+     *
+     * @param key engine configuration
+     * @return active count
+     */
+    public int getActiveCount(Key key) {
+        Slot slot = slots.get(key);
+        return slot == null ? 0 : maxTotal - slot.permits.availablePermits();
+    }
+
+    /**
+     * Deletes all idle engines and stops the idle timeout. Engines still
+     * leased are deleted when they are released.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        if (evictor != null) {
+            evictor.shutdown();
+        }
+        for (Slot slot : slots.values()) {
+            IdleEngine idle;
+            while ((idle = slot.idle.pollFirst()) != null) {
+                api.TessBaseAPIDelete(idle.handle);
+                engines.release();
+            }
+        }
+    }
+
+    /**
+     * Deletes the engines idle for longer than the idle timeout, keeping
+     * <code>minIdle</code> engines per configuration.
+     */
+    void evictExpired() {
+        long now = System.nanoTime();
+        long timeout = TimeUnit.MILLISECONDS.toNanos(idleTimeout);
+        for (Slot slot : slots.values()) {
+            while (slot.idle.size() > minIdle) {
+                // the least recently used engine is last
+                IdleEngine idle = slot.idle.peekLast();
+                if (idle == null || now - idle.since < timeout) {
+                    break;
+                }
+                if (slot.idle.removeLastOccurrence(idle)) {
+                    api.TessBaseAPIDelete(idle.handle);
+                    engines.release();
+                }
+            }
+        }
+    }
+
+    /**
+     * Takes room for a new engine in the pool, evicting the least recently
+     * used idle engines of any configuration while it is full.
+     *
+     * @return false if the pool stayed full until the deadline
+     */
+    private boolean acquireEngine(long deadline) throws InterruptedException {
+        while (!engines.tryAcquire()) {
+            if (evictOldest()) {
+                continue;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return false;
+            }
+            // engines released meanwhile become idle and can then be evicted
+            if (engines.tryAcquire(Math.min(remaining, EVICTION_RETRY_NANOS), TimeUnit.NANOSECONDS)) {
+                return true;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Deletes the least recently used idle engine of the pool.
+     *
+     * @return false if no engine is idle
+     */
+    private boolean evictOldest() {
+        while (true) {
+            Slot oldestSlot = null;
+            IdleEngine oldest = null;
+            for (Slot slot : slots.values()) {
+                IdleEngine idle = slot.idle.peekLast();
+                if (idle != null && (oldest == null || idle.since - oldest.since < 0)) {
+                    oldestSlot = slot;
+                    oldest = idle;
+                }
+            }
+            if (oldest == null) {
+                return false;
+            }
+            // may have been leased meanwhile
+            if (oldestSlot.idle.removeLastOccurrence(oldest)) {
+                api.TessBaseAPIDelete(oldest.handle);
+                engines.release();
+                return true;
+            }
+        }
+    }
+
+    private Slot getSlot(Key key) {
+        Slot slot = slots.get(key);
+        if (slot == null) {
+            Slot created = new Slot(maxTotal);
+            slot = slots.putIfAbsent(key, created);
+            if (slot == null) {
+                slot = created;
+            }
+        }
+        return slot;
+    }
+
+    private TessBaseAPI create(Key key) throws TesseractException {
+        TessBaseAPI handle = api.TessBaseAPICreate();
+        StringArray sarray = new StringArray(key.configs.toArray(new String[0]));
+        PointerByReference configs = new PointerByReference();
+        configs.setPointer(sarray);
+        if (api.TessBaseAPIInit1(handle, key.datapath, key.language, key.ocrEngineMode, configs, key.configs.size()) != 0) {
+            api.TessBaseAPIDelete(handle);
+            throw new TesseractException("Could not initialize engine: " + key);
+        }
+        if (key.pageSegMode > -1) {
+            api.TessBaseAPISetPageSegMode(handle, key.pageSegMode);
+        }
+        for (Map.Entry<String, String> entry : key.variables.entrySet()) {
+            api.TessBaseAPISetVariable(handle, entry.getKey(), entry.getValue());
+        }
+        logger.fine("Initialized engine: " + key);
+        return handle;
+    }
+
+    private static class Slot {
+
+        // most recently used first
+        final BlockingDeque<IdleEngine> idle = new LinkedBlockingDeque<IdleEngine>();
+        final AtomicBoolean started = new AtomicBoolean();
+        final Semaphore permits;
+
+        Slot(int maxTotal) {
+            permits = new Semaphore(maxTotal, true);
+        }
+    }
+
+    private static class IdleEngine {
+
+        final TessBaseAPI handle;
+        // System.nanoTime() when the engine became idle
+        final long since;
+
+        IdleEngine(TessBaseAPI handle) {
+            this.handle = handle;
+            this.since = System.nanoTime();
+        }
+    }
+
+    /**
+     * Identifies engines that can be shared. Besides the <code>Init</code>
+     * arguments, the page segmentation mode and the variables are part of the
+     * key, as they stay set on a handle across leases.
+     */
+    public static final class Key {
+
+        private final String datapath;
+        private final String language;
+        private final int ocrEngineMode;
+        private final int pageSegMode;
+        private final List<String> configs;
+        private final SortedMap<String, String> variables;
+
+        /**
+         * Creates a key.
+         *
+         * @param datapath the tessdata path
+         * @param language the language code
+         * @param ocrEngineMode the OCR engine mode
+         * @param pageSegMode the page segmentation mode, -1 for the default
+         * @param configs config filenames passed to <code>Init</code>
+         * @param variables Tesseract variables
+         */
+        public Key(String datapath, String language, int ocrEngineMode, int pageSegMode, List<String> configs, Properties variables) {
+            this.datapath = datapath;
+            this.language = language;
+            this.ocrEngineMode = ocrEngineMode;
+            this.pageSegMode = pageSegMode;
+            this.configs = Collections.unmodifiableList(new ArrayList<String>(configs));
+            SortedMap<String, String> vars = new TreeMap<String, String>();
+            for (String name : variables.stringPropertyNames()) {
+                vars.put(name, variables.getProperty(name));
+            }
+            this.variables = Collections.unmodifiableSortedMap(vars);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return ocrEngineMode == other.ocrEngineMode
+                    && pageSegMode == other.pageSegMode
+                    && equal(datapath, other.datapath)
+                    && equal(language, other.language)
+                    && configs.equals(other.configs)
+                    && variables.equals(other.variables);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = datapath == null ? 0 : datapath.hashCode();
+            result = 31 * result + (language == null ? 0 : language.hashCode());
+            result = 31 * result + ocrEngineMode;
+            result = 31 * result + pageSegMode;
+            result = 31 * result + configs.hashCode();
+            result = 31 * result + variables.hashCode();
+            return result;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("[datapath=%s, language=%s, oem=%d, psm=%d, configs=%s, variables=%s]",
+                    datapath, language, ocrEngineMode, pageSegMode, configs, variables);
+        }
+
+        private static boolean equal(Object a, Object b) {
+            return a == null ? b == null : a.equals(b);
+        }
+    }
+}
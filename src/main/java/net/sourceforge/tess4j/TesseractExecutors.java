@@ -0,0 +1,140 @@
+/**
+ * Copyright @ 2015 Quan Nguyen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.sourceforge.tess4j;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executors for running native OCR calls off the caller's thread.
+ */
+public class TesseractExecutors {
+
+    /**
+     * Default number of queued OCR calls per executor.
+     */
+    public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+
+    private static volatile ExecutorService defaultExecutor;
+
+    private TesseractExecutors() {
+    }
+
+    /**
+     * Gets the shared executor used by the asynchronous <code>doOCR</code>
+     * methods when none is configured. It runs one thread per available
+     * processor.
+     *
+     * @return the shared executor
+     */
+    public static ExecutorService getDefaultExecutor() {
+        if (defaultExecutor == null) {
+            synchronized (TesseractExecutors.class) {
+                if (defaultExecutor == null) {
+                    defaultExecutor = newExecutor(Runtime.getRuntime().availableProcessors(), DEFAULT_QUEUE_CAPACITY);
+                }
+            }
+        }
+        return defaultExecutor;
+    }
+
+    /**
+     * Creates a bounded executor for native OCR calls. Its daemon threads are
+     * created on demand and stop after a minute of inactivity; calls beyond the
+     * queue capacity are rejected.
+     *
+     * @param threads number of threads, i.e., concurrent native calls
+     * @param queueCapacity maximum number of waiting calls
+     * @return a new executor
+     */
+    public static ExecutorService newExecutor(int threads, int queueCapacity) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<Runnable>(queueCapacity), new OcrThreadFactory());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Runs a task on an executor.
+     *
+     * @param <T> result type
+     * @param task the task
+     * @param executor the executor
+     * @return a future completed with the result of the task, or exceptionally
+     * with its exception or a <code>RejectedExecutionException</code>
+     */
+    public static <T> CompletableFuture<T> submit(final Callable<T> task, Executor executor) {
+        final CompletableFuture<T> future = new CompletableFuture<T>();
+        try {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    if (future.isDone()) {
+                        return; // cancelled while queued
+                    }
+                    try {
+                        future.complete(task.call());
+                    } catch (Throwable t) {
+                        future.completeExceptionally(t);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException ree) {
+            future.completeExceptionally(ree);
+        }
+        return future;
+    }
+
+    /**
+     * Gets the number of tasks an executor runs at once, used to bound the
+     * work submitted ahead of a consumer.
+     *
+     * @param executor the executor
+     * @return the core pool size of a <code>ThreadPoolExecutor</code>, the
+     * number of available processors otherwise
+     */
+    public static int getParallelism(Executor executor) {
+        if (executor instanceof ThreadPoolExecutor) {
+            int threads = ((ThreadPoolExecutor) executor).getCorePoolSize();
+            if (threads > 0) {
+                return threads;
+            }
+        }
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+    private static class OcrThreadFactory implements ThreadFactory {
+
+        private static final AtomicInteger poolNumber = new AtomicInteger(1);
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+        private final String namePrefix = "tess4j-ocr-" + poolNumber.getAndIncrement() + "-";
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, namePrefix + threadNumber.getAndIncrement());
+            t.setDaemon(true);
+            return t;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+/**
+ * Copyright @ 2015 Quan Nguyen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.sourceforge.tess4j;
+
+import java.awt.Rectangle;
+import java.awt.geom.Line2D;
+
+/**
+ * Encapsulates Tesseract results.
+ */
+public class Word {
+
+    private final String text;
+    private final float confidence;
+    private final Rectangle rect;
+    private final Line2D baseline;
+    private final FontAttributes fontAttributes;
+
+    public Word(String text, float confidence, Rectangle rect) {
+        this(text, confidence, rect, null, null);
+    }
+
+    public Word(String text, float confidence, Rectangle rect, Line2D baseline, FontAttributes fontAttributes) {
+        this.text = text;
+        this.confidence = confidence;
+        this.rect = rect;
+        this.baseline = baseline;
+        this.fontAttributes = fontAttributes;
+    }
+
+    /**
+     * @return the text
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * @return the confidence
+     */
+    public float getConfidence() {
+        return confidence;
+    }
+
+    /**
+     * @return the bounding box
+     */
+    public Rectangle getRect() {
+        return rect;
+    }
+
+    /**
+     * @return the baseline, or <code>null</code> if not available
+     */
+    public Line2D getBaseline() {
+        return baseline;
+    }
+
+    /**
+     * @return the font attributes; <code>null</code> above word level
+     */
+    public FontAttributes getFontAttributes() {
+        return fontAttributes;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s\t[Confidence: %f Bounding box: %d %d %d %d]", text, confidence, rect.x, rect.y, rect.width, rect.height);
+    }
+
+    /**
+     * Font attributes of a word, as reported by
+     * <code>TessResultIteratorWordFontAttributes</code>.
+     */
+    public static class FontAttributes {
+
+        private final String fontName;
+        private final boolean bold;
+        private final boolean italic;
+        private final boolean underlined;
+        private final boolean monospace;
+        private final boolean serif;
+        private final boolean smallCaps;
+        private final int pointSize;
+        private final int fontId;
+
+        public FontAttributes(String fontName, boolean bold, boolean italic, boolean underlined, boolean monospace,
+                boolean serif, boolean smallCaps, int pointSize, int fontId) {
+            this.fontName = fontName;
+            this.bold = bold;
+            this.italic = italic;
+            this.underlined = underlined;
+            this.monospace = monospace;
+            this.serif = serif;
+            this.smallCaps = smallCaps;
+            this.pointSize = pointSize;
+            this.fontId = fontId;
+        }
+
+        /**
+         * @return the font name
+         */
+        public String getFontName() {
+            return fontName;
+        }
+
+        /**
+         * @return true if bold
+         */
+        public boolean isBold() {
+            return bold;
+        }
+
+        /**
+         * @return true if italic
+         */
+        public boolean isItalic() {
+            return italic;
+        }
+
+        /**
+         * @return true if underlined
+         */
+        public boolean isUnderlined() {
+            return underlined;
+        }
+
+        /**
+         * @return true if monospace
+         */
+        public boolean isMonospace() {
+            return monospace;
+        }
+
+        /**
+         * @return true if serif
+         */
+        public boolean isSerif() {
+            return serif;
+        }
+
+        /**
+         * @return true if small caps
+         */
+        public boolean isSmallCaps() {
+            return smallCaps;
+        }
+
+        /**
+         * @return the size in printer's points (1/72 inch)
+         */
+        public int getPointSize() {
+            return pointSize;
+        }
+
+        /**
+         * @return the font id
+         */
+        public int getFontId() {
+            return fontId;
+        }
+    }
+}
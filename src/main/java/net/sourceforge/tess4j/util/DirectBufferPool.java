@@ -0,0 +1,158 @@
+/**
+ * Copyright @ 2015 Quan Nguyen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.sourceforge.tess4j.util;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A thread-safe pool of direct <code>ByteBuffer</code>s in power-of-two size
+ * classes. Direct memory is only reclaimed when the garbage collector gets to
+ * the owning buffer, so allocating a new buffer per page leads to
+ * <code>OutOfMemoryError: Direct buffer memory</code> under load; pooled
+ * buffers are reused instead and must be handed back with
+ * {@link #release(ByteBuffer)}.
+ */
+public class DirectBufferPool {
+
+    /**
+     * Smallest size class, 64 KB.
+     */
+    public static final int MIN_CLASS_SHIFT = 16;
+    /**
+     * Largest size class, 256 MB. Larger requests are not pooled.
+     */
+    public static final int MAX_CLASS_SHIFT = 28;
+    /**
+     * Default bound for the memory held by idle buffers, 256 MB.
+     */
+    public static final long DEFAULT_MAX_POOLED_BYTES = 1L << 28;
+
+    private static final DirectBufferPool defaultPool = new DirectBufferPool(DEFAULT_MAX_POOLED_BYTES);
+
+    private final List<Queue<ByteBuffer>> classes;
+    private final long maxPooledBytes;
+    private final AtomicLong pooledBytes = new AtomicLong();
+
+    /**
+     * Creates a pool.
+     *
+     * @param maxPooledBytes bound for the memory held by idle buffers; buffers
+     * released beyond it are left to the garbage collector
+     */
+    public DirectBufferPool(long maxPooledBytes) {
+        this.maxPooledBytes = maxPooledBytes;
+        int count = MAX_CLASS_SHIFT - MIN_CLASS_SHIFT + 1;
+        classes = new ArrayList<Queue<ByteBuffer>>(count);
+        for (int i = 0; i < count; i++) {
+            classes.add(new ConcurrentLinkedQueue<ByteBuffer>());
+        }
+    }
+
+    /**
+     * Gets the shared pool.
+     *
+     * @return the shared pool
+     */
+    public static DirectBufferPool getDefault() {
+        return defaultPool;
+    }
+
+    /**
+     * Borrows a direct buffer in native byte order. Its position is 0 and its
+     * limit is <code>size</code>; the capacity may be larger.
+     *
+     * @param size number of bytes needed
+     * @return a buffer to be returned with {@link #release(ByteBuffer)}
+     */
+    public ByteBuffer acquire(int size) {
+        int index = classIndex(size);
+        ByteBuffer buf = null;
+        if (index >= 0) {
+            buf = classes.get(index).poll();
+            if (buf != null) {
+                pooledBytes.addAndGet(-buf.capacity());
+            } else {
+                buf = ByteBuffer.allocateDirect(1 << (index + MIN_CLASS_SHIFT));
+            }
+        } else {
+            buf = ByteBuffer.allocateDirect(size);
+        }
+        buf.clear();
+        buf.limit(size);
+        buf.order(ByteOrder.nativeOrder());
+        return buf;
+    }
+
+    /**
+     * Returns a buffer obtained from {@link #acquire(int)}. The buffer must not
+     * be used afterwards.
+     *
+     * @param buf the buffer; <code>null</code> is ignored
+     */
+    public void release(ByteBuffer buf) {
+        if (buf == null || !buf.isDirect()) {
+            return;
+        }
+        int capacity = buf.capacity();
+        if (Integer.bitCount(capacity) != 1) {
+            return; // not a pooled size
+        }
+        int index = Integer.numberOfTrailingZeros(capacity) - MIN_CLASS_SHIFT;
+        if (index < 0 || index >= classes.size()) {
+            return;
+        }
+        if (pooledBytes.addAndGet(capacity) > maxPooledBytes) {
+            pooledBytes.addAndGet(-capacity);
+            return;
+        }
+        classes.get(index).offer(buf);
+    }
+
+    /**
+     * Gets the memory held by idle buffers.
+     *
+     * @return number of bytes
+     */
+    public long getPooledBytes() {
+        return pooledBytes.get();
+    }
+
+    /**
+     * Drops all idle buffers.
+     */
+    public void clear() {
+        for (Queue<ByteBuffer> queue : classes) {
+            ByteBuffer buf;
+            while ((buf = queue.poll()) != null) {
+                pooledBytes.addAndGet(-buf.capacity());
+            }
+        }
+    }
+
+    private static int classIndex(int size) {
+        int shift = size <= 1 ? 0 : 32 - Integer.numberOfLeadingZeros(size - 1);
+        if (shift > MAX_CLASS_SHIFT) {
+            return -1;
+        }
+        return Math.max(shift, MIN_CLASS_SHIFT) - MIN_CLASS_SHIFT;
+    }
+}
@@ -34,6 +34,34 @@ public class ImageIOHelper {
      * @return pixel data
      */
     public static ByteBuffer convertImageData(BufferedImage bi) {
+        byte[] pixelData = getPixelData(bi);
+        //        return ByteBuffer.wrap(pixelData);
+        ByteBuffer buf = ByteBuffer.allocateDirect(pixelData.length);
+        buf.order(ByteOrder.nativeOrder());
+        buf.put(pixelData);
+        buf.flip();
+        return buf;
+    }
+
+    /**
+     * Converts <code>BufferedImage</code> to <code>ByteBuffer</code> borrowed
+     * from a buffer pool. The pixels are packed by the image's
+     * {@link RasterConverter}, whose <code>getBitsPerPixel</code> gives the
+     * depth of the data.
+     *
+     * @param bi Input image
+     * @param pool the pool to borrow the buffer from
+     * @return pixel data; to be released to the pool once no longer used
+     */
+    public static ByteBuffer convertImageData(BufferedImage bi, DirectBufferPool pool) {
+        RasterConverter converter = RasterConverter.forImage(bi);
+        ByteBuffer buf = pool.acquire(converter.getBytesPerLine(bi.getWidth()) * bi.getHeight());
+        converter.pack(bi, buf);
+        buf.flip();
+        return buf;
+    }
+
+    private static byte[] getPixelData(BufferedImage bi) {
         DataBuffer buff = bi.getRaster().getDataBuffer();
         // ClassCastException thrown if buff not instanceof DataBufferByte because raster data is not necessarily bytes.
         // Convert the original buffered image to grayscale.
@@ -41,13 +69,7 @@ public class ImageIOHelper {
             bi = ImageHelper.convertImageToGrayscale(bi);
             buff = bi.getRaster().getDataBuffer();
         }
-        byte[] pixelData = ((DataBufferByte) buff).getData();
-        //        return ByteBuffer.wrap(pixelData);
-        ByteBuffer buf = ByteBuffer.allocateDirect(pixelData.length);
-        buf.order(ByteOrder.nativeOrder());
-        buf.put(pixelData);
-        buf.flip();
-        return buf;
+        return ((DataBufferByte) buff).getData();
     }
 
     /**
@@ -0,0 +1,415 @@
+/**
+ * Copyright @ 2015 Quan Nguyen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.sourceforge.tess4j.util;
+
+import java.awt.color.ColorSpace;
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.ComponentColorModel;
+import java.awt.image.ComponentSampleModel;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.awt.image.DataBufferUShort;
+import java.awt.image.DirectColorModel;
+import java.awt.image.IndexColorModel;
+import java.awt.image.MultiPixelPackedSampleModel;
+import java.awt.image.Raster;
+import java.awt.image.SampleModel;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.nio.ByteBuffer;
+
+/**
+ * Packs the pixels of a <code>BufferedImage</code> into the layout expected by
+ * <code>TessBaseAPISetImage</code>: rows of <code>getBytesPerLine</code> bytes,
+ * each pixel being 1 bit (0 for black), 8 bit gray, 24 bit RGB or 32 bit RGBA.
+ * The pixels are read straight from the image's <code>DataBuffer</code>:
+ * <ul>
+ * <li><code>TYPE_INT_RGB</code>, <code>TYPE_INT_BGR</code> and
+ * <code>TYPE_INT_ARGB</code> are unpacked to RGB or RGBA;</li>
+ * <li><code>TYPE_3BYTE_BGR</code> and <code>TYPE_4BYTE_ABGR</code> are
+ * reordered to RGB or RGBA;</li>
+ * <li><code>TYPE_BYTE_GRAY</code> is copied, <code>TYPE_USHORT_GRAY</code> is
+ * reduced to 8 bit;</li>
+ * <li><code>TYPE_BYTE_BINARY</code> with 1 bit per pixel is copied, inverted
+ * if its palette maps 0 to white;</li>
+ * <li><code>TYPE_BYTE_INDEXED</code> is looked up in its palette to RGB.</li>
+ * </ul>
+ * Any other image is read through <code>getRGB</code> a row at a time.
+ */
+public abstract class RasterConverter {
+
+    private final int bitsPerPixel;
+
+    RasterConverter(int bitsPerPixel) {
+        this.bitsPerPixel = bitsPerPixel;
+    }
+
+    /**
+     * Gets the converter for an image.
+     *
+     * @param image the image
+     * @return the converter
+     */
+    public static RasterConverter forImage(BufferedImage image) {
+        Raster raster = image.getRaster();
+        SampleModel sm = raster.getSampleModel();
+        DataBuffer db = raster.getDataBuffer();
+        ColorModel cm = image.getColorModel();
+
+        if (db.getNumBanks() != 1) {
+            return new RGBConverter();
+        }
+
+        if (cm instanceof IndexColorModel) {
+            IndexColorModel icm = (IndexColorModel) cm;
+            if (sm instanceof MultiPixelPackedSampleModel && db instanceof DataBufferByte
+                    && icm.getPixelSize() == 1 && icm.getMapSize() == 2) {
+                return new BinaryConverter(luminance(icm.getRGB(0)) > luminance(icm.getRGB(1)));
+            }
+            if (sm instanceof ComponentSampleModel && db instanceof DataBufferByte && sm.getNumBands() == 1) {
+                return new IndexedConverter(icm);
+            }
+            return new RGBConverter();
+        }
+
+        if (cm.isAlphaPremultiplied()) {
+            return new RGBConverter();
+        }
+        int colorSpaceType = cm.getColorSpace().getType();
+
+        if (cm instanceof ComponentColorModel && sm instanceof ComponentSampleModel) {
+            int bands = sm.getNumBands();
+            if (db instanceof DataBufferByte && hasSampleSize(sm, 8)) {
+                if (bands == 1 && colorSpaceType == ColorSpace.TYPE_GRAY) {
+                    return new InterleavedByteConverter(8);
+                }
+                if (bands == 3 && colorSpaceType == ColorSpace.TYPE_RGB) {
+                    return new InterleavedByteConverter(24);
+                }
+                if (bands == 4 && colorSpaceType == ColorSpace.TYPE_RGB && cm.hasAlpha()) {
+                    return new InterleavedByteConverter(32);
+                }
+            }
+            if (db instanceof DataBufferUShort && bands == 1 && colorSpaceType == ColorSpace.TYPE_GRAY) {
+                return new UShortGrayConverter();
+            }
+        }
+
+        if (cm instanceof DirectColorModel && sm instanceof SinglePixelPackedSampleModel
+                && db instanceof DataBufferInt && colorSpaceType == ColorSpace.TYPE_RGB) {
+            int bands = sm.getNumBands();
+            if ((bands == 3 || bands == 4) && hasSampleSize(sm, 8)) {
+                return new PackedIntConverter(bands * 8);
+            }
+        }
+
+        return new RGBConverter();
+    }
+
+    /**
+     * Gets the bits per pixel of the packed data.
+     *
+     * @return 1, 8, 24 or 32
+     */
+    public int getBitsPerPixel() {
+        return bitsPerPixel;
+    }
+
+    /**
+     * Gets the length of a packed row.
+     *
+     * @param width number of pixels in the row
+     * @return number of bytes
+     */
+    public int getBytesPerLine(int width) {
+        return (width * bitsPerPixel + 7) / 8;
+    }
+
+    /**
+     * Packs the whole image.
+     *
+     * @param image the image
+     * @param dest destination; its position is advanced by
+     * <code>getBytesPerLine(width) * height</code> bytes
+     */
+    public void pack(BufferedImage image, ByteBuffer dest) {
+        pack(image, 0, 0, image.getWidth(), image.getHeight(), dest);
+    }
+
+    /**
+     * Packs a region of the image.
+     *
+     * @param image the image
+     * @param x left of the region
+     * @param y top of the region
+     * @param width width of the region
+     * @param height height of the region
+     * @param dest destination; its position is advanced by
+     * <code>getBytesPerLine(width) * height</code> bytes
+     */
+    public abstract void pack(BufferedImage image, int x, int y, int width, int height, ByteBuffer dest);
+
+    private static boolean hasSampleSize(SampleModel sm, int size) {
+        for (int sampleSize : sm.getSampleSize()) {
+            if (sampleSize != size) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int luminance(int rgb) {
+        return (((rgb >> 16) & 0xff) * 299 + ((rgb >> 8) & 0xff) * 587 + (rgb & 0xff) * 114) / 1000;
+    }
+
+    /**
+     * Byte samples with the bands of a pixel next to each other: gray, RGB
+     * and RGBA in any band order.
+     */
+    private static class InterleavedByteConverter extends RasterConverter {
+
+        InterleavedByteConverter(int bitsPerPixel) {
+            super(bitsPerPixel);
+        }
+
+        @Override
+        public void pack(BufferedImage image, int x, int y, int width, int height, ByteBuffer dest) {
+            Raster raster = image.getRaster();
+            ComponentSampleModel sm = (ComponentSampleModel) raster.getSampleModel();
+            DataBufferByte db = (DataBufferByte) raster.getDataBuffer();
+            byte[] data = db.getData();
+            int pixelStride = sm.getPixelStride();
+            int scanlineStride = sm.getScanlineStride();
+            int[] bandOffsets = sm.getBandOffsets();
+            int bands = bandOffsets.length;
+            int left = db.getOffset() + (x - raster.getSampleModelTranslateX()) * pixelStride;
+            int top = y - raster.getSampleModelTranslateY();
+
+            if (bands == 1 && pixelStride == 1) {
+                for (int j = 0; j < height; j++) {
+                    dest.put(data, left + (top + j) * scanlineStride + bandOffsets[0], width);
+                }
+                return;
+            }
+
+            byte[] row = new byte[width * bands];
+            for (int j = 0; j < height; j++) {
+                int offset = left + (top + j) * scanlineStride;
+                int k = 0;
+                for (int i = 0; i < width; i++, offset += pixelStride) {
+                    for (int b = 0; b < bands; b++) {
+                        row[k++] = data[offset + bandOffsets[b]];
+                    }
+                }
+                dest.put(row);
+            }
+        }
+    }
+
+    /**
+     * One int per pixel with 8 bit RGB or ARGB fields.
+     */
+    private static class PackedIntConverter extends RasterConverter {
+
+        PackedIntConverter(int bitsPerPixel) {
+            super(bitsPerPixel);
+        }
+
+        @Override
+        public void pack(BufferedImage image, int x, int y, int width, int height, ByteBuffer dest) {
+            Raster raster = image.getRaster();
+            SinglePixelPackedSampleModel sm = (SinglePixelPackedSampleModel) raster.getSampleModel();
+            DataBufferInt db = (DataBufferInt) raster.getDataBuffer();
+            int[] data = db.getData();
+            int scanlineStride = sm.getScanlineStride();
+            int[] shifts = sm.getBitOffsets();
+            int left = db.getOffset() + x - raster.getSampleModelTranslateX();
+            int top = y - raster.getSampleModelTranslateY();
+            int rShift = shifts[0];
+            int gShift = shifts[1];
+            int bShift = shifts[2];
+            boolean alpha = shifts.length == 4;
+            int aShift = alpha ? shifts[3] : 0;
+
+            byte[] row = new byte[getBytesPerLine(width)];
+            for (int j = 0; j < height; j++) {
+                int offset = left + (top + j) * scanlineStride;
+                int k = 0;
+                for (int i = 0; i < width; i++) {
+                    int pixel = data[offset + i];
+                    row[k++] = (byte) (pixel >>> rShift);
+                    row[k++] = (byte) (pixel >>> gShift);
+                    row[k++] = (byte) (pixel >>> bShift);
+                    if (alpha) {
+                        row[k++] = (byte) (pixel >>> aShift);
+                    }
+                }
+                dest.put(row);
+            }
+        }
+    }
+
+    /**
+     * 16 bit gray samples, reduced to their high byte.
+     */
+    private static class UShortGrayConverter extends RasterConverter {
+
+        UShortGrayConverter() {
+            super(8);
+        }
+
+        @Override
+        public void pack(BufferedImage image, int x, int y, int width, int height, ByteBuffer dest) {
+            Raster raster = image.getRaster();
+            ComponentSampleModel sm = (ComponentSampleModel) raster.getSampleModel();
+            DataBufferUShort db = (DataBufferUShort) raster.getDataBuffer();
+            short[] data = db.getData();
+            int pixelStride = sm.getPixelStride();
+            int scanlineStride = sm.getScanlineStride();
+            int left = db.getOffset() + (x - raster.getSampleModelTranslateX()) * pixelStride + sm.getBandOffsets()[0];
+            int top = y - raster.getSampleModelTranslateY();
+
+            byte[] row = new byte[width];
+            for (int j = 0; j < height; j++) {
+                int offset = left + (top + j) * scanlineStride;
+                for (int i = 0; i < width; i++, offset += pixelStride) {
+                    row[i] = (byte) ((data[offset] & 0xffff) >>> 8);
+                }
+                dest.put(row);
+            }
+        }
+    }
+
+    /**
+     * 1 bit per pixel, 8 pixels per byte, most significant bit first.
+     */
+    private static class BinaryConverter extends RasterConverter {
+
+        private final boolean invert;
+
+        BinaryConverter(boolean invert) {
+            super(1);
+            this.invert = invert;
+        }
+
+        @Override
+        public void pack(BufferedImage image, int x, int y, int width, int height, ByteBuffer dest) {
+            Raster raster = image.getRaster();
+            MultiPixelPackedSampleModel sm = (MultiPixelPackedSampleModel) raster.getSampleModel();
+            DataBufferByte db = (DataBufferByte) raster.getDataBuffer();
+            byte[] data = db.getData();
+            int scanlineStride = sm.getScanlineStride();
+            int bitOffset = sm.getDataBitOffset() + x - raster.getSampleModelTranslateX();
+            int left = db.getOffset() + (bitOffset >> 3);
+            int shift = bitOffset & 7;
+            int top = y - raster.getSampleModelTranslateY();
+            int bytesPerLine = getBytesPerLine(width);
+            int mask = invert ? 0xff : 0;
+
+            byte[] row = new byte[bytesPerLine];
+            for (int j = 0; j < height; j++) {
+                int offset = left + (top + j) * scanlineStride;
+                if (shift == 0) {
+                    for (int i = 0; i < bytesPerLine; i++) {
+                        row[i] = (byte) (data[offset + i] ^ mask);
+                    }
+                } else {
+                    // region starts inside a byte: join the bits of two source bytes
+                    int last = offset + ((shift + width - 1) >> 3);
+                    for (int i = 0; i < bytesPerLine; i++) {
+                        int hi = data[offset + i] << shift;
+                        int lo = offset + i + 1 <= last ? (data[offset + i + 1] & 0xff) >>> (8 - shift) : 0;
+                        row[i] = (byte) ((hi | lo) ^ mask);
+                    }
+                }
+                dest.put(row);
+            }
+        }
+    }
+
+    /**
+     * 8 bit palette indices, looked up to RGB.
+     */
+    private static class IndexedConverter extends RasterConverter {
+
+        private final byte[] reds;
+        private final byte[] greens;
+        private final byte[] blues;
+
+        IndexedConverter(IndexColorModel icm) {
+            super(24);
+            reds = new byte[256];
+            greens = new byte[256];
+            blues = new byte[256];
+            icm.getReds(reds);
+            icm.getGreens(greens);
+            icm.getBlues(blues);
+        }
+
+        @Override
+        public void pack(BufferedImage image, int x, int y, int width, int height, ByteBuffer dest) {
+            Raster raster = image.getRaster();
+            ComponentSampleModel sm = (ComponentSampleModel) raster.getSampleModel();
+            DataBufferByte db = (DataBufferByte) raster.getDataBuffer();
+            byte[] data = db.getData();
+            int pixelStride = sm.getPixelStride();
+            int scanlineStride = sm.getScanlineStride();
+            int left = db.getOffset() + (x - raster.getSampleModelTranslateX()) * pixelStride + sm.getBandOffsets()[0];
+            int top = y - raster.getSampleModelTranslateY();
+
+            byte[] row = new byte[width * 3];
+            for (int j = 0; j < height; j++) {
+                int offset = left + (top + j) * scanlineStride;
+                int k = 0;
+                for (int i = 0; i < width; i++, offset += pixelStride) {
+                    int index = data[offset] & 0xff;
+                    row[k++] = reds[index];
+                    row[k++] = greens[index];
+                    row[k++] = blues[index];
+                }
+                dest.put(row);
+            }
+        }
+    }
+
+    /**
+     * Any other image, converted to RGB by <code>getRGB</code>.
+     */
+    private static class RGBConverter extends RasterConverter {
+
+        RGBConverter() {
+            super(24);
+        }
+
+        @Override
+        public void pack(BufferedImage image, int x, int y, int width, int height, ByteBuffer dest) {
+            int[] argb = new int[width];
+            byte[] row = new byte[width * 3];
+            for (int j = 0; j < height; j++) {
+                image.getRGB(x, y + j, width, 1, argb, 0, width);
+                int k = 0;
+                for (int i = 0; i < width; i++) {
+                    int pixel = argb[i];
+                    row[k++] = (byte) (pixel >> 16);
+                    row[k++] = (byte) (pixel >> 8);
+                    row[k++] = (byte) pixel;
+                }
+                dest.put(row);
+            }
+        }
+    }
+}
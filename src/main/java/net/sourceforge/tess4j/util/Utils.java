@@ -20,9 +20,17 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 public class Utils {
 
+    private static final Pattern BBOX = Pattern.compile("bbox (\\d+) (\\d+) (\\d+) (\\d+)");
+    // hOCR escapes quotes and angle brackets in attribute values and text
+    private static final Pattern TAG = Pattern.compile("<[^>]*>");
+    private static final Pattern TITLE = Pattern.compile("\\btitle=(['\"])(.*?)\\1");
+    private static final Pattern PAGE_CLASS = Pattern.compile("\\bclass=(['\"])ocr_page\\1");
+
     /**
      * Writes byte array to file.
      *
@@ -71,4 +79,111 @@ public class Utils {
         }
         return String.valueOf(value);
     }
+
+    /**
+     * Shifts the <code>bbox</code> coordinates in the <code>title</code>
+     * attributes of hOCR output, e.g., from a cropped image back to the
+     * original page. The recognized text is left alone.
+     *
+     * @param hocr hOCR text
+     * @param dx horizontal offset
+     * @param dy vertical offset
+     * @return translated hOCR text
+     */
+    public static String translateBoundingBoxes(String hocr, int dx, int dy) {
+        return translateBoundingBoxes(hocr, dx, dy, -1, -1);
+    }
+
+    /**
+     * Shifts the <code>bbox</code> coordinates in the <code>title</code>
+     * attributes of hOCR output from a cropped image back to the original
+     * page, whose <code>ocr_page</code> elements are set to cover the whole
+     * page. The recognized text is left alone.
+     *
+     * @param hocr hOCR text
+     * @param dx horizontal offset
+     * @param dy vertical offset
+     * @param pageWidth width of the original page; -1 to shift the
+     * <code>ocr_page</code> elements as well
+     * @param pageHeight height of the original page
+     * @return translated hOCR text
+     */
+    public static String translateBoundingBoxes(String hocr, int dx, int dy, int pageWidth, int pageHeight) {
+        Matcher tag = TAG.matcher(hocr);
+        Matcher title = TITLE.matcher(hocr);
+        Matcher page = PAGE_CLASS.matcher(hocr);
+        StringBuilder sb = new StringBuilder(hocr.length() + 64);
+        int last = 0;
+        while (tag.find()) {
+            title.region(tag.start(), tag.end());
+            if (!title.find()) {
+                continue;
+            }
+            sb.append(hocr, last, title.start(2));
+            if (pageWidth >= 0 && page.region(tag.start(), tag.end()).find()) {
+                translateTitle(sb, title.group(2), 0, 0, pageWidth, pageHeight);
+            } else {
+                translateTitle(sb, title.group(2), dx, dy, -1, -1);
+            }
+            last = title.end(2);
+        }
+        sb.append(hocr, last, hocr.length());
+        return sb.toString();
+    }
+
+    /**
+     * Appends a title with its bbox shifted, or replaced by the given size.
+     */
+    private static void translateTitle(StringBuilder sb, String title, int dx, int dy, int width, int height) {
+        Matcher m = BBOX.matcher(title);
+        int last = 0;
+        while (m.find()) {
+            sb.append(title, last, m.start());
+            if (width >= 0) {
+                sb.append("bbox 0 0 ").append(width).append(' ').append(height);
+            } else {
+                sb.append("bbox ").append(Integer.parseInt(m.group(1)) + dx).append(' ')
+                        .append(Integer.parseInt(m.group(2)) + dy).append(' ')
+                        .append(Integer.parseInt(m.group(3)) + dx).append(' ')
+                        .append(Integer.parseInt(m.group(4)) + dy);
+            }
+            last = m.end();
+        }
+        sb.append(title, last, title.length());
+    }
+
+    /**
+     * Shifts the coordinates of box file output, e.g., from a cropped image
+     * back to the original page. Box coordinates have their origin at the
+     * bottom left of the image.
+     *
+     * @param box box text, one symbol per line
+     * @param dx horizontal offset
+     * @param dy vertical offset, upwards
+     * @return translated box text
+     */
+    public static String translateBoxText(String box, int dx, int dy) {
+        if (box.isEmpty()) {
+            return box;
+        }
+        StringBuilder sb = new StringBuilder(box.length() + 64);
+        for (String line : box.split("\n")) {
+            String[] fields = line.split(" ");
+            int n = fields.length;
+            if (n < 6) {
+                sb.append(line).append('\n');
+                continue;
+            }
+            // symbol left bottom right top page; the symbol itself may contain spaces
+            for (int i = 0; i < n - 5; i++) {
+                sb.append(fields[i]).append(' ');
+            }
+            sb.append(Integer.parseInt(fields[n - 5]) + dx).append(' ')
+                    .append(Integer.parseInt(fields[n - 4]) + dy).append(' ')
+                    .append(Integer.parseInt(fields[n - 3]) + dx).append(' ')
+                    .append(Integer.parseInt(fields[n - 2]) + dy).append(' ')
+                    .append(fields[n - 1]).append('\n');
+        }
+        return sb.toString();
+    }
 }
@@ -0,0 +1,61 @@
+/**
+ * <a url=http://www.jdeskew.com/>JDeskew</a>
+ */
+package com.recognition.software.jdeskew;
+
+import static org.junit.Assert.assertEquals;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.IndexColorModel;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class BlackRowScannerTest {
+
+    /**
+     * Test of scan method, of class BlackRowScanner, against
+     * ImageUtil.isBlack for each image type.
+     */
+    @Test
+    public void testScan() {
+        int[] types = {BufferedImage.TYPE_BYTE_BINARY, BufferedImage.TYPE_BYTE_GRAY, BufferedImage.TYPE_BYTE_INDEXED,
+            BufferedImage.TYPE_INT_RGB, BufferedImage.TYPE_INT_ARGB, BufferedImage.TYPE_INT_ARGB_PRE, BufferedImage.TYPE_INT_BGR,
+            BufferedImage.TYPE_3BYTE_BGR, BufferedImage.TYPE_4BYTE_ABGR, BufferedImage.TYPE_USHORT_GRAY};
+        Random random = new Random(42);
+        for (int type : types) {
+            BufferedImage image = new BufferedImage(131, 9, type);
+            for (int y = 0; y < image.getHeight(); y++) {
+                for (int x = 0; x < image.getWidth(); x++) {
+                    // 140 gray lies exactly on the luminance cut-off
+                    int rgb = random.nextInt(8) == 0 ? 0x8C8C8C : random.nextInt();
+                    image.setRGB(x, y, rgb | 0xFF000000);
+                }
+            }
+            assertScan(image);
+            assertScan(image.getSubimage(3, 2, 120, 6));
+        }
+
+        byte[] gray = {0, (byte) 90, (byte) 180, (byte) 255};
+        BufferedImage twoBit = new BufferedImage(37, 5, BufferedImage.TYPE_BYTE_BINARY, new IndexColorModel(2, 4, gray, gray, gray));
+        for (int y = 0; y < twoBit.getHeight(); y++) {
+            for (int x = 0; x < twoBit.getWidth(); x++) {
+                twoBit.getRaster().setSample(x, y, 0, random.nextInt(4));
+            }
+        }
+        assertScan(twoBit);
+        assertScan(twoBit.getSubimage(5, 1, 30, 3));
+    }
+
+    private static void assertScan(BufferedImage image) {
+        BlackRowScanner scanner = new BlackRowScanner(image);
+        long[] black = new long[(image.getWidth() + 63) / 64];
+        for (int y = 0; y < image.getHeight(); y++) {
+            scanner.scan(y, black);
+            for (int x = 0; x < image.getWidth(); x++) {
+                assertEquals("type " + image.getType() + " at " + x + "," + y,
+                        ImageUtil.isBlack(image, x, y), (black[x >>> 6] >>> x & 1) != 0);
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/**
+ * Copyright @ 2015 Quan Nguyen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.sourceforge.tess4j;
+
+import static org.junit.Assert.assertEquals;
+
+import java.awt.Rectangle;
+import java.nio.charset.StandardCharsets;
+
+import net.sourceforge.tess4j.ITessAPI.TessPageIteratorLevel;
+
+import org.junit.Test;
+
+public class HocrPageParserTest {
+
+    private static final String HOCR
+            = "  <div class='ocr_page' id='page_1' title='image \"\"; bbox 0 0 640 160; ppageno 0'>\n"
+            + "   <div class='ocr_carea' id='block_1_1' title=\"bbox 36 92 618 120\">\n"
+            + "    <p class='ocr_par' dir='ltr' id='par_1_1' title=\"bbox 36 92 618 120\">\n"
+            + "     <span class='ocr_line' id='line_1_1' title=\"bbox 36 92 618 120; baseline 0 -6\">"
+            + "<span class='ocrx_word' id='word_1_1' title='bbox 36 92 96 116; x_wconf 90' lang='eng' dir='ltr'><strong>The</strong></span> "
+            + "<span class='ocrx_word' id='word_1_2' title='bbox 109 92 222 120; x_wconf 80' lang='eng' dir='ltr'><em>&lt;lazy&gt;</em></span> "
+            + "<!-- <span class='ocrx_word'>skipped</span> -->"
+            + "<span class='ocrx_word' id='word_1_3' title='bbox 236 92 300 116; x_wconf 70' lang='eng' dir='ltr'>d\u00e9j\u00e0 &amp; &#233;</span>\n"
+            + "     </span>\n"
+            + "    </p>\n"
+            + "   </div>\n"
+            + "  </div>\n";
+
+    /**
+     * Test of parse method, of class HocrPageParser.
+     */
+    @Test
+    public void testParse() {
+        byte[] hocr = HOCR.getBytes(StandardCharsets.UTF_8);
+        OcrPageResult result = new OcrPageResult();
+        HocrPageParser.parse(hocr, hocr.length, 10, 20, result);
+
+        assertEquals(6, result.size());
+        assertEquals(TessPageIteratorLevel.RIL_BLOCK, result.getLevel(0));
+        assertEquals(TessPageIteratorLevel.RIL_PARA, result.getLevel(1));
+        assertEquals(TessPageIteratorLevel.RIL_TEXTLINE, result.getLevel(2));
+        assertEquals(new Rectangle(46, 112, 582, 28), result.getRect(0));
+        assertEquals("", result.getText(2));
+        assertEquals(80f, result.getConfidence(2), 0f);
+
+        assertEquals(TessPageIteratorLevel.RIL_WORD, result.getLevel(3));
+        assertEquals("The", result.getText(3));
+        assertEquals(new Rectangle(46, 112, 60, 24), result.getRect(3));
+        assertEquals(90f, result.getConfidence(3), 0f);
+        assertEquals(OcrPageResult.FLAG_BOLD, result.getFlags(3));
+
+        assertEquals("<lazy>", result.getText(4));
+        assertEquals(OcrPageResult.FLAG_ITALIC, result.getFlags(4));
+        assertEquals("d\u00e9j\u00e0 & \u00e9", result.getText(5));
+        assertEquals(0, result.getFlags(5));
+    }
+}
@@ -0,0 +1,200 @@
+/**
+ * Copyright @ 2015 Quan Nguyen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.sourceforge.tess4j;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class OcrDiskCacheTest {
+
+    private File directory;
+    private final BufferedImage image = new BufferedImage(40, 20, BufferedImage.TYPE_BYTE_GRAY);
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("ocrcache").toFile();
+    }
+
+    @After
+    public void tearDown() {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    private OcrResultCache.Key key(int i) {
+        return new OcrResultCache.Key(image, "fingerprint " + i);
+    }
+
+    /**
+     * Test of get and put methods, of class OcrDiskCache.
+     */
+    @Test
+    public void testGetPut() throws IOException {
+        OcrDiskCache cache = new OcrDiskCache(directory);
+        try {
+            assertNull(cache.get(key(1)));
+            cache.put(key(1), "Tess4J \u00e9");
+            cache.put(key(2), "second");
+            cache.put(key(2), "updated");
+            assertEquals("Tess4J \u00e9", cache.get(key(1)));
+            assertEquals("updated", cache.get(key(2)));
+            assertNull(cache.get(new OcrResultCache.Key(new BufferedImage(40, 21, BufferedImage.TYPE_BYTE_GRAY), "fingerprint 1")));
+            assertEquals(2, cache.size());
+            assertEquals(2, cache.getHitCount());
+            assertEquals(2, cache.getMissCount());
+        } finally {
+            cache.close();
+        }
+
+        // reopened, or opened by another process
+        OcrDiskCache reopened = new OcrDiskCache(directory);
+        try {
+            assertEquals("Tess4J \u00e9", reopened.get(key(1)));
+            assertEquals("updated", reopened.get(key(2)));
+        } finally {
+            reopened.close();
+        }
+    }
+
+    /**
+     * Test of lookups of records appended after the log was mapped.
+     */
+    @Test
+    public void testGet_AfterPut() throws IOException {
+        OcrDiskCache cache = new OcrDiskCache(directory);
+        try {
+            for (int i = 0; i < 500; i++) {
+                cache.put(key(i), "text " + i);
+                assertEquals("text " + i, cache.get(key(i)));
+            }
+            assertEquals("text 0", cache.get(key(0)));
+            assertEquals("text 250", cache.get(key(250)));
+        } finally {
+            cache.close();
+        }
+    }
+
+    /**
+     * Test of compact method, of class OcrDiskCache.
+     */
+    @Test
+    public void testCompact() throws IOException {
+        OcrDiskCache cache = new OcrDiskCache(directory);
+        OcrDiskCache other = new OcrDiskCache(directory);
+        try {
+            for (int i = 0; i < 100; i++) {
+                cache.put(key(i), "text " + i);
+            }
+            cache.put(key(7), "text 7 updated");
+            assertEquals("text 3", other.get(key(3)));
+
+            cache.compact();
+            assertEquals(100, cache.size());
+            assertTrue(new File(directory, "ocrcache-1.log").exists());
+            assertTrue(!new File(directory, "ocrcache-0.log").exists());
+            for (int i = 0; i < 100; i++) {
+                assertEquals(i == 7 ? "text 7 updated" : "text " + i, other.get(key(i)));
+            }
+
+            // writes of either switch to the new generation
+            other.put(key(100), "text 100");
+            assertEquals("text 100", cache.get(key(100)));
+        } finally {
+            cache.close();
+            other.close();
+        }
+    }
+
+    /**
+     * Test of concurrent writers of two instances on the same directory.
+     */
+    @Test
+    public void testPut_SameDirectory() throws Exception {
+        final OcrDiskCache cache = new OcrDiskCache(directory);
+        final OcrDiskCache other = new OcrDiskCache(new File(directory.getPath() + File.separator + "."));
+        try {
+            Thread[] threads = new Thread[4];
+            final Throwable[] failure = new Throwable[1];
+            for (int t = 0; t < threads.length; t++) {
+                final int offset = t * 100;
+                final OcrDiskCache target = t % 2 == 0 ? cache : other;
+                threads[t] = new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            for (int i = offset; i < offset + 100; i++) {
+                                target.put(key(i), "text " + i);
+                            }
+                        } catch (Throwable e) {
+                            failure[0] = e;
+                        }
+                    }
+                });
+                threads[t].start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            assertNull(failure[0]);
+            assertEquals(400, cache.size());
+            assertEquals("text 150", cache.get(key(150)));
+            assertEquals("text 250", other.get(key(250)));
+        } finally {
+            cache.close();
+            other.close();
+        }
+    }
+
+    /**
+     * Test of the bound on the size of the log.
+     */
+    @Test
+    public void testMaxBytes() throws IOException {
+        OcrDiskCache cache = new OcrDiskCache(directory, 4096);
+        try {
+            for (int i = 0; i < 200; i++) {
+                cache.put(key(i), "text " + i);
+            }
+            cache.compact();
+            File[] logs = directory.listFiles();
+            for (File log : logs) {
+                if (log.getName().endsWith(".log")) {
+                    assertTrue(log.length() <= 4096 / 2 + 8);
+                }
+            }
+            assertTrue(cache.size() < 200);
+            assertEquals("text 199", cache.get(key(199)));
+            assertNull(cache.get(key(0)));
+        } finally {
+            cache.close();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/**
+ * Copyright @ 2015 Quan Nguyen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.sourceforge.tess4j;
+
+import static org.junit.Assert.assertEquals;
+
+import java.awt.Rectangle;
+import java.nio.charset.StandardCharsets;
+
+import net.sourceforge.tess4j.ITessAPI.TessPageIteratorLevel;
+
+import org.junit.Test;
+
+import com.sun.jna.Memory;
+
+public class OcrPageResultTest {
+
+    /**
+     * Test of add method, of class OcrPageResult.
+     */
+    @Test
+    public void testAdd() {
+        OcrPageResult result = new OcrPageResult();
+        result.add(TessPageIteratorLevel.RIL_TEXTLINE, 10, 20, 110, 40, 90f, 0, null);
+        for (int i = 0; i < 1000; i++) {
+            result.add(TessPageIteratorLevel.RIL_WORD, i, 20, i + 10, 40, 80f, OcrPageResult.FLAG_BOLD, utf8("w\u00e9" + i));
+        }
+
+        assertEquals(1001, result.size());
+        assertEquals(TessPageIteratorLevel.RIL_TEXTLINE, result.getLevel(0));
+        assertEquals("", result.getText(0));
+        assertEquals(new Rectangle(10, 20, 100, 20), result.getRect(0));
+
+        assertEquals(TessPageIteratorLevel.RIL_WORD, result.getLevel(500));
+        assertEquals("w\u00e9499", result.getText(500));
+        assertEquals(6, result.getTextLength(500));
+        assertEquals(499, result.getLeft(500));
+        assertEquals(509, result.getRight(500));
+        assertEquals(80f, result.getConfidence(500), 0f);
+        assertEquals(OcrPageResult.FLAG_BOLD, result.getFlags(500));
+
+        result.trimToSize();
+        assertEquals("w\u00e9999", result.getText(1000));
+        assertEquals(result.getTextOffset(1000) + result.getTextLength(1000), result.getTextBuffer().length);
+    }
+
+    /**
+     * Test of add method after trimToSize on an empty result.
+     */
+    @Test
+    public void testAdd_AfterTrimToSize() {
+        OcrPageResult result = new OcrPageResult();
+        result.trimToSize();
+        result.add(TessPageIteratorLevel.RIL_WORD, 0, 0, 10, 20, 80f, 0, utf8("w"));
+        result.add(TessPageIteratorLevel.RIL_WORD, 10, 0, 20, 20, 70f, 0, utf8("x"));
+
+        assertEquals(2, result.size());
+        assertEquals("x", result.getText(1));
+        assertEquals(70f, result.getConfidence(1), 0f);
+    }
+
+    private static Memory utf8(String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        Memory memory = new Memory(bytes.length + 1);
+        memory.write(0, bytes, 0, bytes.length);
+        memory.setByte(bytes.length, (byte) 0);
+        return memory;
+    }
+}
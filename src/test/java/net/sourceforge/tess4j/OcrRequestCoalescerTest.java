@@ -0,0 +1,109 @@
+/**
+ * Copyright @ 2015 Quan Nguyen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.sourceforge.tess4j;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class OcrRequestCoalescerTest {
+
+    private final OcrResultCache.Key key = new OcrResultCache.Key(new BufferedImage(20, 10, BufferedImage.TYPE_BYTE_GRAY), "eng");
+
+    /**
+     * Test of execute method, of class OcrRequestCoalescer.
+     */
+    @Test
+    public void testExecute() throws Exception {
+        final OcrRequestCoalescer coalescer = new OcrRequestCoalescer();
+        final AtomicInteger runs = new AtomicInteger();
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final Callable<String> recognition = new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                runs.incrementAndGet();
+                started.countDown();
+                release.await();
+                return "Tess4J";
+            }
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> results = new ArrayList<Future<String>>();
+            Callable<String> call = new Callable<String>() {
+                @Override
+                public String call() throws Exception {
+                    return coalescer.execute(key, recognition);
+                }
+            };
+            results.add(executor.submit(call));
+            started.await();
+            for (int i = 0; i < 3; i++) {
+                results.add(executor.submit(call));
+            }
+            while (coalescer.getJoinedCount() < 3) {
+                Thread.sleep(10);
+            }
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertEquals("Tess4J", result.get(10, TimeUnit.SECONDS));
+            }
+            assertEquals(1, runs.get());
+            assertEquals(0, coalescer.getInFlightCount());
+        } finally {
+            executor.shutdown();
+        }
+
+        // a finished recognition is not reused
+        assertEquals("Tess4J", coalescer.execute(key, recognition));
+        assertEquals(2, runs.get());
+    }
+
+    /**
+     * Test of the failure of a recognition.
+     */
+    @Test
+    public void testExecute_Failure() {
+        OcrRequestCoalescer coalescer = new OcrRequestCoalescer();
+        try {
+            coalescer.execute(key, new Callable<String>() {
+                @Override
+                public String call() throws Exception {
+                    throw new TesseractException("failed");
+                }
+            });
+            fail("Expected TesseractException");
+        } catch (TesseractException te) {
+            assertEquals("failed", te.getMessage());
+        }
+        assertEquals(0, coalescer.getInFlightCount());
+    }
+}
@@ -0,0 +1,144 @@
+/**
+ * Copyright @ 2015 Quan Nguyen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.sourceforge.tess4j;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import org.junit.Test;
+
+public class OcrResultCacheTest {
+
+    private static BufferedImage createImage(int type, int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, type);
+        Graphics2D g = image.createGraphics();
+        g.setColor(Color.WHITE);
+        g.fillRect(0, 0, width, height);
+        g.setColor(Color.BLACK);
+        g.drawString("Tess4J", 5, height / 2);
+        g.dispose();
+        return image;
+    }
+
+    private static BufferedImage copy(BufferedImage image) {
+        BufferedImage copy = new BufferedImage(image.getWidth(), image.getHeight(), image.getType());
+        copy.setData(image.getData());
+        return copy;
+    }
+
+    /**
+     * Test of the Key class.
+     */
+    @Test
+    public void testKey() {
+        int[] types = {BufferedImage.TYPE_INT_RGB, BufferedImage.TYPE_3BYTE_BGR, BufferedImage.TYPE_BYTE_GRAY,
+            BufferedImage.TYPE_USHORT_GRAY, BufferedImage.TYPE_BYTE_BINARY};
+        for (int type : types) {
+            BufferedImage image = createImage(type, 61, 23);
+            OcrResultCache.Key key = new OcrResultCache.Key(image, "eng");
+            assertEquals(key, new OcrResultCache.Key(copy(image), "eng"));
+            assertEquals(key.hashCode(), new OcrResultCache.Key(copy(image), "eng").hashCode());
+            assertFalse(key.equals(new OcrResultCache.Key(image, "deu")));
+
+            BufferedImage changed = copy(image);
+            changed.setRGB(60, 22, changed.getRGB(60, 22) == Color.BLACK.getRGB() ? Color.WHITE.getRGB() : Color.BLACK.getRGB());
+            assertFalse(key.equals(new OcrResultCache.Key(changed, "eng")));
+        }
+
+        // a subimage is hashed without the pixels of its parent
+        BufferedImage image = createImage(BufferedImage.TYPE_INT_RGB, 61, 23);
+        BufferedImage sub = image.getSubimage(3, 2, 40, 15);
+        assertEquals(new OcrResultCache.Key(copy(sub), "eng"), new OcrResultCache.Key(sub, "eng"));
+    }
+
+    /**
+     * Test of get and put methods, of class OcrResultCache.
+     */
+    @Test
+    public void testGetPut() {
+        OcrResultCache cache = new OcrResultCache();
+        OcrResultCache.Key key = new OcrResultCache.Key(createImage(BufferedImage.TYPE_INT_RGB, 30, 20), "eng");
+        assertNull(cache.get(key));
+        cache.put(key, "Tess4J");
+        assertEquals("Tess4J", cache.get(key));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.size());
+        assertTrue(cache.getBytes() > 0);
+    }
+
+    /**
+     * Test of the eviction of least recently used entries.
+     */
+    @Test
+    public void testEviction() {
+        OcrResultCache.Key first = new OcrResultCache.Key(createImage(BufferedImage.TYPE_INT_RGB, 30, 20), "a");
+        OcrResultCache.Key second = new OcrResultCache.Key(createImage(BufferedImage.TYPE_INT_RGB, 30, 20), "b");
+        OcrResultCache.Key third = new OcrResultCache.Key(createImage(BufferedImage.TYPE_INT_RGB, 30, 20), "c");
+        String text = new String(new char[100]);
+        OcrResultCache cache = new OcrResultCache(800);
+        cache.put(first, text);
+        cache.put(second, text);
+        cache.get(first);
+        cache.put(third, text);
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+        assertNull(cache.get(second));
+        assertEquals(text, cache.get(first));
+        assertTrue(cache.getBytes() <= cache.getMaxBytes());
+
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getBytes());
+    }
+
+    /**
+     * Test of the disk tier.
+     */
+    @Test
+    public void testDiskTier() throws IOException {
+        File directory = Files.createTempDirectory("ocrcache").toFile();
+        OcrDiskCache diskCache = new OcrDiskCache(directory);
+        try {
+            OcrResultCache.Key key = new OcrResultCache.Key(createImage(BufferedImage.TYPE_INT_RGB, 30, 20), "eng");
+            new OcrResultCache(OcrResultCache.DEFAULT_MAX_BYTES, diskCache).put(key, "Tess4J");
+
+            // a new heap tier, as after a restart
+            OcrResultCache cache = new OcrResultCache(OcrResultCache.DEFAULT_MAX_BYTES, diskCache);
+            assertEquals("Tess4J", cache.get(key));
+            assertEquals("Tess4J", cache.get(key));
+            assertEquals(2, cache.getHitCount());
+            assertEquals(1, cache.getDiskHitCount());
+            assertEquals(1, diskCache.getHitCount());
+        } finally {
+            diskCache.close();
+            for (File file : directory.listFiles()) {
+                file.delete();
+            }
+            directory.delete();
+        }
+    }
+}
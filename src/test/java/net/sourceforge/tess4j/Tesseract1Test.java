@@ -141,6 +141,46 @@ public class Tesseract1Test {
         assertArrayEquals(expResults, text.toArray());
     }
 
+    /**
+     * Test of overriding the protected methods of Tesseract1 called during
+     * OCR.
+     *
+     * @throws Exception while processing image.
+     */
+    @Test
+    public void testDoOCR_OverriddenHooks() throws Exception {
+        logger.info("doOCR with overridden hooks");
+        File imageFile = new File(this.testResourcesDataPath, "eurotext.png");
+        BufferedImage bi = ImageIO.read(imageFile);
+        final List<String> calls = new ArrayList<String>();
+        Tesseract1 instance1 = new Tesseract1() {
+            @Override
+            protected void setImage(BufferedImage buf, Rectangle rect) {
+                calls.add("setImage");
+                super.setImage(buf, rect);
+            }
+
+            @Override
+            protected String getOCRText(String filename, int pageNum) {
+                calls.add("getOCRText");
+                return super.getOCRText(filename, pageNum).toUpperCase();
+            }
+
+            @Override
+            protected void dispose() {
+                calls.add("dispose");
+                super.dispose();
+            }
+        };
+        instance1.setDatapath(new File(datapath).getPath());
+        String expResult = "THE (QUICK) [BROWN] {FOX} JUMPS!";
+        String result = instance1.doOCR(bi);
+        logger.info(result);
+        assertEquals(expResult, result.substring(0, expResult.length()));
+        assertEquals(3, calls.size());
+        assertEquals("dispose", calls.get(2));
+    }
+
     class Tess1Extension extends Tesseract1 {
 
         public List<Word> getWords(File file, int pageIteratorLevel) {
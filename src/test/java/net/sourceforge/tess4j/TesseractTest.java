@@ -17,16 +17,28 @@ package net.sourceforge.tess4j;
 
 import java.awt.Rectangle;
 import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
 import java.nio.IntBuffer;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import javax.imageio.IIOImage;
 import javax.imageio.ImageIO;
 
+import com.sun.jna.Memory;
 import com.sun.jna.Pointer;
+import com.sun.jna.ptr.IntByReference;
 
 import net.sourceforge.tess4j.util.ImageHelper;
 import net.sourceforge.tess4j.util.ImageIOHelper;
@@ -35,9 +47,11 @@ import net.sourceforge.tess4j.util.Utils;
 
 import net.sourceforge.tess4j.ITesseract.RenderedFormat;
 import net.sourceforge.tess4j.ITessAPI.TessPageIteratorLevel;
+import net.sourceforge.tess4j.ITessAPI.TessPageSegMode;
 import static net.sourceforge.tess4j.ITessAPI.TRUE;
 
 import com.recognition.software.jdeskew.ImageDeskew;
+import net.sourceforge.tess4j.ITessAPI.TessBaseAPI;
 import net.sourceforge.tess4j.ITessAPI.TessPageIterator;
 import net.sourceforge.tess4j.ITessAPI.TessResultIterator;
 
@@ -47,11 +61,23 @@ import static org.junit.Assert.assertArrayEquals;
 import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
 
 public class TesseractTest {
 
@@ -97,6 +123,655 @@ public class TesseractTest {
         assertEquals(expResult, result.substring(0, expResult.length()));
     }
 
+    /**
+     * Test of doOCR method with a pool of initialized engines.
+     *
+     * @throws Exception while processing image.
+     */
+    @Test
+    public void testDoOCR_EnginePool() throws Exception {
+        logger.info("doOCR with pooled engines");
+        File imageFile = new File(this.testResourcesDataPath, "eurotext.png");
+        BufferedImage bi = ImageIO.read(imageFile);
+        String expResult = "The (quick) [brown] {fox} jumps!\nOver the $43,456.78 <lazy> #90 dog";
+
+        TesseractEnginePool pool = new TesseractEnginePool(1, 2, TesseractEnginePool.DEFAULT_BORROW_TIMEOUT);
+        try {
+            ((Tesseract) instance).setEnginePool(pool);
+            for (int i = 0; i < 3; i++) {
+                String result = instance.doOCR(bi);
+                assertEquals(expResult, result.substring(0, expResult.length()));
+            }
+        } finally {
+            pool.close();
+        }
+    }
+
+    /**
+     * Test of doOCR method with one instance shared by several threads.
+     *
+     * @throws Exception while processing image.
+     */
+    @Test
+    public void testDoOCR_ConcurrentCallers() throws Exception {
+        logger.info("doOCR from concurrent threads on a shared instance");
+        File imageFile = new File(this.testResourcesDataPath, "eurotext.png");
+        final BufferedImage bi = ImageIO.read(imageFile);
+        String expResult = "The (quick) [brown] {fox} jumps!\nOver the $43,456.78 <lazy> #90 dog";
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> futures = new ArrayList<Future<String>>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(new Callable<String>() {
+                    @Override
+                    public String call() throws Exception {
+                        return instance.doOCR(bi);
+                    }
+                }));
+            }
+            for (Future<String> future : futures) {
+                String result = future.get();
+                assertEquals(expResult, result.substring(0, expResult.length()));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Test of doOCR method reusing one engine across calls.
+     *
+     * @throws Exception while processing image.
+     */
+    @Test
+    public void testDoOCR_KeepAlive() throws Exception {
+        logger.info("doOCR with a kept-alive engine");
+        File imageFile = new File(this.testResourcesDataPath, "eurotext.png");
+        BufferedImage bi = ImageIO.read(imageFile);
+        String expResult = "The (quick) [brown] {fox} jumps!\nOver the $43,456.78 <lazy> #90 dog";
+
+        Tesseract keepAliveInstance = new Tesseract();
+        keepAliveInstance.setDatapath(new File(datapath).getPath());
+        keepAliveInstance.setKeepAlive(true);
+        try {
+            for (int i = 0; i < 3; i++) {
+                String result = keepAliveInstance.doOCR(bi);
+                assertEquals(expResult, result.substring(0, expResult.length()));
+            }
+        } finally {
+            keepAliveInstance.close();
+        }
+    }
+
+    /**
+     * Test of doOCR method recognizing pages in parallel.
+     *
+     * @throws Exception while processing image.
+     */
+    @Test
+    public void testDoOCR_ParallelPages() throws Exception {
+        logger.info("doOCR on multiple pages in parallel");
+        File imageFile = new File(this.testResourcesDataPath, "eurotext.png");
+        BufferedImage bi = ImageIO.read(imageFile);
+        List<BufferedImage> pages = Arrays.asList(bi, bi, bi);
+
+        String expResult = instance.doOCR(pages, null);
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            ((Tesseract) instance).setExecutor(executor);
+            String result = instance.doOCR(pages, null);
+            logger.info(result);
+            assertEquals(expResult, result);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Test of doOCRAsync method.
+     *
+     * @throws Exception while processing image.
+     */
+    @Test
+    public void testDoOCRAsync_BufferedImage() throws Exception {
+        logger.info("doOCRAsync on a buffered image of a PNG");
+        File imageFile = new File(this.testResourcesDataPath, "eurotext.png");
+        BufferedImage bi = ImageIO.read(imageFile);
+        String expResult = "The (quick) [brown] {fox} jumps!\nOver the $43,456.78 <lazy> #90 dog";
+        String result = instance.doOCRAsync(bi).get();
+        logger.info(result);
+        assertEquals(expResult, result.substring(0, expResult.length()));
+    }
+
+    /**
+     * Test of doOCR method with a deadline.
+     *
+     * @throws Exception while processing image.
+     */
+    @Test
+    public void testDoOCR_CancellationToken() throws Exception {
+        logger.info("doOCR with a deadline and a cancelled token");
+        File imageFile = new File(this.testResourcesDataPath, "eurotext.png");
+        BufferedImage bi = ImageIO.read(imageFile);
+        String expResult = "The (quick) [brown] {fox} jumps!\nOver the $43,456.78 <lazy> #90 dog";
+        String result = instance.doOCR(bi, null, CancellationToken.withTimeout(1, TimeUnit.MINUTES));
+        assertEquals(expResult, result.substring(0, expResult.length()));
+
+        CancellationToken token = new CancellationToken();
+        token.cancel();
+        try {
+            instance.doOCR(bi, null, token);
+            fail("Cancelled OCR should not return a result");
+        } catch (TesseractException e) {
+            logger.info(e.getMessage());
+        }
+    }
+
+    /**
+     * Test of doOCR method reporting progress through a shared service.
+     *
+     * @throws Exception while processing image.
+     */
+    @Test
+    public void testDoOCR_ProgressService() throws Exception {
+        logger.info("doOCR with progress events");
+        File imageFile = new File(this.testResourcesDataPath, "eurotext.png");
+        BufferedImage bi = ImageIO.read(imageFile);
+        String expResult = "The (quick) [brown] {fox} jumps!\nOver the $43,456.78 <lazy> #90 dog";
+
+        ProgressService service = new ProgressService(5, TimeUnit.MILLISECONDS);
+        try {
+            final List<Integer> progress = new CopyOnWriteArrayList<Integer>();
+            Tesseract tess = (Tesseract) instance;
+            tess.setProgressService(service);
+            tess.setProgressListener(new ProgressService.Listener() {
+                @Override
+                public void progressChanged(ProgressService.Job job) {
+                    progress.add(job.getProgress());
+                }
+            });
+            String result = instance.doOCR(bi);
+            logger.info("progress: " + progress);
+            assertEquals(expResult, result.substring(0, expResult.length()));
+            assertEquals(0, service.getJobCount());
+        } finally {
+            service.close();
+        }
+    }
+
+    /**
+     * Test of doOCR method uploading only the region of interest.
+     *
+     * @throws Exception while processing image.
+     */
+    @Test
+    public void testDoOCR_RegionMargin() throws Exception {
+        logger.info("doOCR on a region uploaded without the rest of the image");
+        File imageFile = new File(this.testResourcesDataPath, "eurotext.png");
+        BufferedImage bi = ImageIO.read(imageFile);
+        Rectangle rect = new Rectangle(0, bi.getHeight() / 4, bi.getWidth(), bi.getHeight() / 2);
+        String expResult = instance.doOCR(bi, rect);
+
+        ((Tesseract) instance).setRegionMargin(16);
+        String result = instance.doOCR(bi, rect);
+        logger.info(result);
+        assertEquals(expResult, result);
+    }
+
+    /**
+     * Test of getOutput method in box format, uploading only a region at the
+     * top left of the image.
+     *
+     * @throws Exception while processing image.
+     */
+    @Test
+    public void testGetOutput_RegionMarginBox() throws Exception {
+        logger.info("getOutput in box format on a top-left region uploaded without the rest of the image");
+        File imageFile = new File(this.testResourcesDataPath, "eurotext.png");
+        BufferedImage bi = ImageIO.read(imageFile);
+        Rectangle rect = new Rectangle(0, 0, bi.getWidth(), bi.getHeight() / 2);
+        String expResult = instance.getOutput(bi, rect, EnumSet.of(RenderedFormat.BOX), false).getText(RenderedFormat.BOX);
+
+        ((Tesseract) instance).setRegionMargin(16);
+        String result = instance.getOutput(bi, rect, EnumSet.of(RenderedFormat.BOX), false).getText(RenderedFormat.BOX);
+        logger.info(result);
+        assertEquals(expResult, result);
+    }
+
+    /**
+     * Test of doOCR method on several regions of one image.
+     *
+     * @throws Exception while processing image.
+     */
+    @Test
+    public void testDoOCR_Regions() throws Exception {
+        logger.info("doOCR on several regions of a buffered image");
+        File imageFile = new File(this.testResourcesDataPath, "eurotext.png");
+        BufferedImage bi = ImageIO.read(imageFile);
+        Rectangle top = new Rectangle(0, 0, bi.getWidth(), bi.getHeight() / 2);
+        Rectangle bottom = new Rectangle(0, bi.getHeight() / 2, bi.getWidth(), bi.getHeight() / 2);
+
+        List<String> result = instance.doOCR(bi, Arrays.asList(top, bottom));
+        logger.info(result.toString());
+        assertEquals(2, result.size());
+        assertEquals(instance.doOCR(bi, top), result.get(0));
+        assertEquals(instance.doOCR(bi, bottom), result.get(1));
+    }
+
+    /**
+     * Test of doOCRRegions method with per-region settings.
+     *
+     * @throws Exception while processing image.
+     */
+    @Test
+    public void testDoOCRRegions() throws Exception {
+        logger.info("doOCRRegions with a digit whitelist on one region");
+        File imageFile = new File(this.testResourcesDataPath, "eurotext.png");
+        BufferedImage bi = ImageIO.read(imageFile);
+        Rectangle rect = new Rectangle(0, 0, bi.getWidth(), bi.getHeight());
+        OcrRegion digits = new OcrRegion(rect, TessPageSegMode.PSM_SINGLE_BLOCK);
+        digits.setCharWhitelist("0123456789");
+
+        List<String> result = instance.doOCRRegions(bi, Arrays.asList(digits, new OcrRegion(rect)));
+        logger.info(result.toString());
+        assertTrue(result.get(0).trim().matches("[0-9\\s]*"));
+        // settings of the first region must not leak into the second
+        assertEquals(instance.doOCR(bi, rect), result.get(1));
+    }
+
+    /**
+     * Test of getWords method.
+     *
+     * @throws Exception while processing image.
+     */
+    @Test
+    public void testGetWords() throws Exception {
+        logger.info("getWords at word level");
+        File imageFile = new File(this.testResourcesDataPath, "eurotext.png");
+        BufferedImage bi = ImageIO.read(imageFile);
+        String expResult = "The (quick) [brown] {fox} jumps!\nOver the $43,456.78 <lazy> #90 dog";
+        String[] expResults = expResult.split("\\s");
+
+        List<Word> result = instance.getWords(bi, TessPageIteratorLevel.RIL_WORD);
+        List<String> text = new ArrayList<String>();
+        for (Word word : result.subList(0, expResults.length)) {
+            logger.info(word.toString());
+            text.add(word.getText());
+            assertTrue(word.getRect().width > 0);
+            assertNotNull(word.getBaseline());
+            assertNotNull(word.getFontAttributes());
+        }
+        assertArrayEquals(expResults, text.toArray());
+    }
+
+    /**
+     * Test of getPageResult method.
+     *
+     * @throws Exception while processing image.
+     */
+    @Test
+    public void testGetPageResult() throws Exception {
+        logger.info("getPageResult down to word level");
+        File imageFile = new File(this.testResourcesDataPath, "eurotext.png");
+        BufferedImage bi = ImageIO.read(imageFile);
+
+        List<Word> words = instance.getWords(bi, TessPageIteratorLevel.RIL_WORD);
+        OcrPageResult result = instance.getPageResult(bi, TessPageIteratorLevel.RIL_WORD);
+        assertEquals(TessPageIteratorLevel.RIL_BLOCK, result.getLevel(0));
+
+        List<String> text = new ArrayList<String>();
+        for (int i = 0; i < result.size(); i++) {
+            if (result.getLevel(i) == TessPageIteratorLevel.RIL_WORD) {
+                text.add(result.getText(i));
+            }
+        }
+        assertEquals(words.size(), text.size());
+        for (int i = 0; i < words.size(); i++) {
+            assertEquals(words.get(i).getText(), text.get(i));
+        }
+    }
+
+    /**
+     * Test of getPageResult method, with batched extraction.
+     *
+     * @throws Exception while processing image.
+     */
+    @Test
+    public void testGetPageResult_BatchedExtraction() throws Exception {
+        logger.info("getPageResult from hOCR");
+        File imageFile = new File(this.testResourcesDataPath, "eurotext.png");
+        BufferedImage bi = ImageIO.read(imageFile);
+
+        OcrPageResult expected = instance.getPageResult(bi, TessPageIteratorLevel.RIL_WORD);
+        ((Tesseract) instance).setBatchedExtraction(true);
+        OcrPageResult result = instance.getPageResult(bi, TessPageIteratorLevel.RIL_WORD);
+
+        assertEquals(expected.size(), result.size());
+        for (int i = 0; i < result.size(); i++) {
+            assertEquals(expected.getLevel(i), result.getLevel(i));
+            assertEquals(expected.getRect(i), result.getRect(i));
+            assertEquals(expected.getText(i), result.getText(i));
+            assertEquals(expected.getConfidence(i), result.getConfidence(i), 1f);
+        }
+    }
+
+    /**
+     * Test of getMeanConfidence and getWordConfidences methods.
+     *
+     * @throws Exception while processing image.
+     */
+    @Test
+    public void testGetConfidences() throws Exception {
+        logger.info("getMeanConfidence and getWordConfidences");
+        File imageFile = new File(this.testResourcesDataPath, "eurotext.png");
+        BufferedImage bi = ImageIO.read(imageFile);
+
+        int[] confidences = instance.getWordConfidences(bi, null);
+        List<Word> words = instance.getWords(bi, TessPageIteratorLevel.RIL_WORD);
+        assertEquals(words.size(), confidences.length);
+        int sum = 0;
+        for (int confidence : confidences) {
+            assertTrue(confidence >= 0 && confidence <= 100);
+            sum += confidence;
+        }
+
+        int mean = instance.getMeanConfidence(bi, null);
+        assertEquals(sum / confidences.length, mean, 1);
+    }
+
+    /**
+     * Test of getOutput method.
+     *
+     * @throws Exception while processing image.
+     */
+    @Test
+    public void testGetOutput() throws Exception {
+        logger.info("getOutput in text, hOCR and box formats from one recognition");
+        File imageFile = new File(this.testResourcesDataPath, "eurotext.png");
+        BufferedImage bi = ImageIO.read(imageFile);
+        String expResult = "The (quick) [brown] {fox} jumps!\nOver the $43,456.78 <lazy> #90 dog";
+
+        OcrOutput result = instance.getOutput(bi, null,
+                EnumSet.of(RenderedFormat.TEXT, RenderedFormat.HOCR, RenderedFormat.BOX), true);
+        assertEquals(expResult, result.getText(RenderedFormat.TEXT).substring(0, expResult.length()));
+        assertTrue(result.getText(RenderedFormat.HOCR).contains("ocrx_word"));
+        assertTrue(result.getText(RenderedFormat.BOX).startsWith("T "));
+        assertNull(result.getText(RenderedFormat.UNLV));
+        assertTrue(result.getWordConfidences().length >= expResult.split("\\s").length);
+    }
+
+    /**
+     * Test of writeOCR method.
+     *
+     * @throws Exception while processing image.
+     */
+    @Test
+    public void testWriteOCR() throws Exception {
+        logger.info("writeOCR of a multi-page document in hOCR");
+        File imageFile = new File(this.testResourcesDataPath, "eurotext.png");
+        BufferedImage bi = ImageIO.read(imageFile);
+        List<BufferedImage> pages = Arrays.asList(bi, bi, bi);
+        ((Tesseract) instance).setHocr(true);
+        String expResult = instance.doOCR(pages, null);
+
+        StringWriter writer = new StringWriter();
+        instance.writeOCR(pages, null, null, writer);
+        assertEquals(expResult, writer.toString());
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            ((Tesseract) instance).setExecutor(executor);
+            instance.writeOCR(pages, null, null, bytes);
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(expResult, bytes.toString("UTF-8"));
+    }
+
+    /**
+     * Test of doOCR method on pages read on demand.
+     *
+     * @throws Exception while processing image.
+     */
+    @Test
+    public void testDoOCR_PageSource() throws Exception {
+        logger.info("doOCR on pages read from a TIFF on demand");
+        File imageFile = new File(this.testResourcesDataPath, "eurotext.tif");
+        List<BufferedImage> pages = new ArrayList<BufferedImage>();
+        OcrPageSource source = new ImageFilePageSource(imageFile);
+        try {
+            BufferedImage page;
+            while ((page = source.nextPage()) != null) {
+                pages.add(page);
+            }
+        } finally {
+            source.close();
+        }
+        String expResult = instance.doOCR(pages, null);
+
+        source = new ImageFilePageSource(imageFile);
+        try {
+            assertEquals(expResult, instance.doOCR(source, null, null));
+        } finally {
+            source.close();
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            ((Tesseract) instance).setExecutor(executor);
+            StringWriter writer = new StringWriter();
+            instance.writeOCR(OcrPageSource.of(pages.iterator()), null, null, writer);
+            assertEquals(expResult, writer.toString());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Test of doOCR method with a result cache.
+     *
+     * @throws Exception while processing image.
+     */
+    @Test
+    public void testDoOCR_ResultCache() throws Exception {
+        logger.info("doOCR on a PNG image with a result cache");
+        File imageFile = new File(this.testResourcesDataPath, "eurotext.png");
+        BufferedImage bi = ImageIO.read(imageFile);
+        OcrResultCache cache = new OcrResultCache();
+        ((Tesseract) instance).setResultCache(cache);
+        String expResult = "The (quick) [brown] {fox} jumps!\nOver the $43,456.78 <lazy> #90 dog";
+        String result = instance.doOCR(bi);
+        assertEquals(expResult, result.substring(0, expResult.length()));
+        assertEquals(0, cache.getHitCount());
+        assertEquals(1, cache.size());
+
+        BufferedImage copy = new BufferedImage(bi.getWidth(), bi.getHeight(), bi.getType());
+        copy.setData(bi.getData());
+        assertEquals(result, instance.doOCR(copy));
+        assertEquals(1, cache.getHitCount());
+
+        // another configuration is a miss
+        instance.setLanguage("eng");
+        instance.setTessVariable("tessedit_char_whitelist", "0123456789");
+        assertTrue(!result.equals(instance.doOCR(bi)));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(2, cache.size());
+    }
+
+    /**
+     * Test of doOCR method with concurrent calls on the same image.
+     *
+     * @throws Exception while processing image.
+     */
+    @Test
+    public void testDoOCR_RequestCoalescer() throws Exception {
+        logger.info("doOCR on the same PNG image from several threads");
+        File imageFile = new File(this.testResourcesDataPath, "eurotext.png");
+        final BufferedImage bi = ImageIO.read(imageFile);
+        OcrRequestCoalescer coalescer = new OcrRequestCoalescer();
+        ((Tesseract) instance).setRequestCoalescer(coalescer);
+        String expResult = "The (quick) [brown] {fox} jumps!\nOver the $43,456.78 <lazy> #90 dog";
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> results = new ArrayList<Future<String>>();
+            for (int i = 0; i < 4; i++) {
+                results.add(executor.submit(new Callable<String>() {
+                    @Override
+                    public String call() throws Exception {
+                        return instance.doOCR(bi);
+                    }
+                }));
+            }
+            for (Future<String> result : results) {
+                assertEquals(expResult, result.get().substring(0, expResult.length()));
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(0, coalescer.getInFlightCount());
+    }
+
+    /**
+     * Test of a binding passed to the constructor, of class Tesseract.
+     *
+     * @throws Exception while processing image.
+     */
+    @Test
+    public void testBinding() throws Exception {
+        logger.info("doOCR through a mock binding");
+        TessAPI api = mock(TessAPI.class);
+        TessBaseAPI handle = new TessBaseAPI();
+        Memory text = new Memory(7);
+        text.setString(0, "Tess4J");
+        when(api.TessBaseAPICreate()).thenReturn(handle);
+        when(api.TessBaseAPIGetUTF8Text(handle)).thenReturn(text);
+
+        Tesseract tesseract = new Tesseract(api);
+        assertSame(api, tesseract.getAPI());
+        assertEquals("Tess4J", tesseract.doOCR(1, 1, ByteBuffer.allocateDirect(1), null, 8));
+        verify(api).TessBaseAPISetImage(handle, ByteBuffer.allocateDirect(1), 1, 1, 1, 1);
+        verify(api).TessDeleteText(text);
+        verify(api).TessBaseAPIDelete(handle);
+    }
+
+    /**
+     * Test of doOCR method with an engine pool on a mock binding.
+     *
+     * @throws Exception while processing image.
+     */
+    @Test
+    public void testBinding_EnginePool() throws Exception {
+        logger.info("doOCR through a mock binding with pooled engines");
+        TessAPI api = mock(TessAPI.class);
+        TessBaseAPI handle = new TessBaseAPI();
+        Memory text = new Memory(7);
+        text.setString(0, "Tess4J");
+        when(api.TessBaseAPICreate()).thenReturn(handle);
+        when(api.TessBaseAPIGetUTF8Text(handle)).thenReturn(text);
+
+        TesseractEnginePool pool = new TesseractEnginePool(api, 0, 1, TesseractEnginePool.DEFAULT_BORROW_TIMEOUT);
+        Tesseract tesseract = new Tesseract(api);
+        tesseract.setEnginePool(pool);
+        for (int i = 0; i < 2; i++) {
+            assertEquals("Tess4J", tesseract.doOCR(1, 1, ByteBuffer.allocateDirect(1), null, 8));
+        }
+        pool.close();
+        verify(api, times(1)).TessBaseAPICreate();
+        verify(api, times(2)).TessBaseAPIClear(handle);
+        verify(api).TessBaseAPIDelete(handle);
+    }
+
+    /**
+     * Test of the pool-wide limit on engines, shared by configurations.
+     *
+     * @throws Exception while processing image.
+     */
+    @Test
+    public void testBinding_EnginePoolCapacity() throws Exception {
+        logger.info("doOCR through a mock binding with a full engine pool");
+        TessAPI api = mock(TessAPI.class);
+        TessBaseAPI first = new TessBaseAPI();
+        TessBaseAPI second = new TessBaseAPI();
+        Memory text = new Memory(7);
+        text.setString(0, "Tess4J");
+        when(api.TessBaseAPICreate()).thenReturn(first, second);
+        when(api.TessBaseAPIGetUTF8Text(any(TessBaseAPI.class))).thenReturn(text);
+
+        TesseractEnginePool pool = new TesseractEnginePool(api, 0, 1, 1, TesseractEnginePool.DEFAULT_BORROW_TIMEOUT, 0);
+        Tesseract tesseract = new Tesseract(api);
+        tesseract.setEnginePool(pool);
+        assertEquals("Tess4J", tesseract.doOCR(1, 1, ByteBuffer.allocateDirect(1), null, 8));
+        // another configuration evicts the idle engine of the first
+        tesseract.setPageSegMode(TessPageSegMode.PSM_SINGLE_LINE);
+        assertEquals("Tess4J", tesseract.doOCR(1, 1, ByteBuffer.allocateDirect(1), null, 8));
+        verify(api).TessBaseAPIDelete(first);
+        verify(api, never()).TessBaseAPIDelete(second);
+        pool.close();
+        verify(api).TessBaseAPIDelete(second);
+    }
+
+    /**
+     * Test of replacing the engine pool while a call holds a leased engine.
+     *
+     * @throws Exception while processing image.
+     */
+    @Test
+    public void testBinding_EnginePoolReplaced() throws Exception {
+        logger.info("doOCR while the engine pool is replaced");
+        TessAPI api = mock(TessAPI.class);
+        TessBaseAPI handle = new TessBaseAPI();
+        final Memory text = new Memory(7);
+        text.setString(0, "Tess4J");
+        final Tesseract tesseract = new Tesseract(api);
+        when(api.TessBaseAPICreate()).thenReturn(handle);
+        when(api.TessBaseAPIGetUTF8Text(handle)).thenAnswer(new Answer<Pointer>() {
+            @Override
+            public Pointer answer(InvocationOnMock invocation) {
+                tesseract.setEnginePool(null);
+                return text;
+            }
+        });
+
+        TesseractEnginePool pool = new TesseractEnginePool(api, 0, 1, TesseractEnginePool.DEFAULT_BORROW_TIMEOUT);
+        for (int i = 0; i < 2; i++) {
+            tesseract.setEnginePool(pool);
+            assertEquals("Tess4J", tesseract.doOCR(1, 1, ByteBuffer.allocateDirect(1), null, 8));
+        }
+        // the engine went back to its pool both times
+        verify(api, never()).TessBaseAPIDelete(handle);
+        pool.close();
+        verify(api, times(1)).TessBaseAPICreate();
+        verify(api).TessBaseAPIDelete(handle);
+    }
+
+    /**
+     * Test of getWordConfidences method through a binding returning an array
+     * in JNA memory.
+     *
+     * @throws Exception while processing image.
+     */
+    @Test
+    public void testGetWordConfidences_Binding() throws Exception {
+        logger.info("getWordConfidences through a mock binding");
+        TessAPI api = mock(TessAPI.class);
+        TessBaseAPI handle = new TessBaseAPI();
+        Memory array = new Memory(3 * 4);
+        array.write(0, new int[]{93, 87, -1}, 0, 3);
+        IntByReference confidences = new IntByReference();
+        confidences.setPointer(array);
+        when(api.TessBaseAPICreate()).thenReturn(handle);
+        when(api.TessBaseAPIAllWordConfidences(handle)).thenReturn(confidences);
+
+        Tesseract tesseract = new Tesseract(api);
+        int[] result = tesseract.getWordConfidences(new BufferedImage(8, 8, BufferedImage.TYPE_BYTE_GRAY), null);
+        assertArrayEquals(new int[]{93, 87}, result);
+        verify(api).TessDeleteIntArray(any(IntBuffer.class));
+        verify(api).TessBaseAPIDelete(handle);
+    }
+
     /**
      * Test of deskew algorithm.
      *
@@ -0,0 +1,75 @@
+/**
+ * Copyright @ 2015 Quan Nguyen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.sourceforge.tess4j.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import org.junit.Test;
+
+public class DirectBufferPoolTest {
+
+    /**
+     * Test of acquire method, of class DirectBufferPool.
+     */
+    @Test
+    public void testAcquire() {
+        DirectBufferPool pool = new DirectBufferPool(DirectBufferPool.DEFAULT_MAX_POOLED_BYTES);
+        ByteBuffer buf = pool.acquire(100000);
+        assertTrue(buf.isDirect());
+        assertEquals(ByteOrder.nativeOrder(), buf.order());
+        assertEquals(0, buf.position());
+        assertEquals(100000, buf.limit());
+        assertEquals(1 << 17, buf.capacity());
+    }
+
+    /**
+     * Test of release method, of class DirectBufferPool.
+     */
+    @Test
+    public void testRelease() {
+        DirectBufferPool pool = new DirectBufferPool(DirectBufferPool.DEFAULT_MAX_POOLED_BYTES);
+        ByteBuffer buf = pool.acquire(70000);
+        buf.put((byte) 1);
+        pool.release(buf);
+        assertEquals(buf.capacity(), pool.getPooledBytes());
+
+        ByteBuffer reused = pool.acquire(120000);
+        assertSame(buf, reused);
+        assertEquals(0, reused.position());
+        assertEquals(120000, reused.limit());
+        assertEquals(0, pool.getPooledBytes());
+    }
+
+    /**
+     * Test of the bound on idle buffers.
+     */
+    @Test
+    public void testMaxPooledBytes() {
+        DirectBufferPool pool = new DirectBufferPool(1 << 16);
+        ByteBuffer first = pool.acquire(1000);
+        ByteBuffer second = pool.acquire(1000);
+        pool.release(first);
+        pool.release(second);
+        assertEquals(1 << 16, pool.getPooledBytes());
+        pool.clear();
+        assertEquals(0, pool.getPooledBytes());
+    }
+}
@@ -0,0 +1,119 @@
+/**
+ * Copyright @ 2015 Quan Nguyen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.sourceforge.tess4j.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.awt.image.BufferedImage;
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+
+public class RasterConverterTest {
+
+    /**
+     * Test of pack method, of class RasterConverter, for RGB images.
+     */
+    @Test
+    public void testPackRGB() {
+        int[] types = {BufferedImage.TYPE_INT_RGB, BufferedImage.TYPE_INT_BGR,
+            BufferedImage.TYPE_3BYTE_BGR, BufferedImage.TYPE_USHORT_555_RGB};
+        for (int type : types) {
+            BufferedImage image = new BufferedImage(5, 3, type);
+            image.setRGB(1, 2, 0xff0080ff);
+            ByteBuffer buf = pack(image, 24);
+            int offset = 2 * 15 + 3;
+            assertEquals(0x00, buf.get(offset) & 0xff);
+            assertEquals(0x80, buf.get(offset + 1) & 0xf0);
+            assertEquals(0xff, buf.get(offset + 2) & 0xff);
+        }
+    }
+
+    /**
+     * Test of pack method, of class RasterConverter, for images with alpha.
+     */
+    @Test
+    public void testPackRGBA() {
+        int[] types = {BufferedImage.TYPE_INT_ARGB, BufferedImage.TYPE_4BYTE_ABGR};
+        for (int type : types) {
+            BufferedImage image = new BufferedImage(5, 3, type);
+            image.setRGB(4, 0, 0x80102030);
+            ByteBuffer buf = pack(image, 32);
+            assertEquals(0x10, buf.get(16));
+            assertEquals(0x20, buf.get(17));
+            assertEquals(0x30, buf.get(18));
+            assertEquals((byte) 0x80, buf.get(19));
+        }
+    }
+
+    /**
+     * Test of pack method, of class RasterConverter, for gray images.
+     */
+    @Test
+    public void testPackGray() {
+        BufferedImage image = new BufferedImage(5, 3, BufferedImage.TYPE_BYTE_GRAY);
+        image.getRaster().setSample(2, 1, 0, 200);
+        assertEquals((byte) 200, pack(image, 8).get(7));
+
+        image = new BufferedImage(5, 3, BufferedImage.TYPE_USHORT_GRAY);
+        image.getRaster().setSample(2, 1, 0, 0xc8ff);
+        assertEquals((byte) 0xc8, pack(image, 8).get(7));
+    }
+
+    /**
+     * Test of pack method, of class RasterConverter, for binary images and
+     * regions not starting on a byte boundary.
+     */
+    @Test
+    public void testPackBinary() {
+        BufferedImage image = new BufferedImage(20, 2, BufferedImage.TYPE_BYTE_BINARY);
+        image.setRGB(3, 1, 0xffffffff);
+        image.setRGB(12, 1, 0xffffffff);
+        ByteBuffer buf = pack(image, 1);
+        assertEquals(6, buf.limit());
+        assertEquals(0x10, buf.get(3));
+        assertEquals(0x08, buf.get(4));
+
+        RasterConverter converter = RasterConverter.forImage(image);
+        buf = ByteBuffer.allocate(converter.getBytesPerLine(16));
+        converter.pack(image, 3, 1, 16, 1, buf);
+        assertEquals((byte) 0x80, buf.get(0));
+        assertEquals(0x40, buf.get(1));
+    }
+
+    /**
+     * Test of pack method, of class RasterConverter, for palette images.
+     */
+    @Test
+    public void testPackIndexed() {
+        BufferedImage image = new BufferedImage(5, 3, BufferedImage.TYPE_BYTE_INDEXED);
+        image.setRGB(0, 1, 0xffff0000);
+        ByteBuffer buf = pack(image, 24);
+        assertEquals((byte) 0xff, buf.get(15));
+        assertEquals(0, buf.get(16));
+        assertEquals(0, buf.get(17));
+    }
+
+    private static ByteBuffer pack(BufferedImage image, int expectedBitsPerPixel) {
+        RasterConverter converter = RasterConverter.forImage(image);
+        assertEquals(expectedBitsPerPixel, converter.getBitsPerPixel());
+        ByteBuffer buf = ByteBuffer.allocate(converter.getBytesPerLine(image.getWidth()) * image.getHeight());
+        converter.pack(image, buf);
+        assertEquals(0, buf.remaining());
+        buf.flip();
+        return buf;
+    }
+}
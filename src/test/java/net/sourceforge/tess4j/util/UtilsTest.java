@@ -0,0 +1,59 @@
+/**
+ * Copyright @ 2015 Quan Nguyen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.sourceforge.tess4j.util;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class UtilsTest {
+
+    /**
+     * Test of translateBoundingBoxes method, of class Utils.
+     */
+    @Test
+    public void testTranslateBoundingBoxes() {
+        String hocr = "<span class='ocr_line' id='line_1_1' title=\"bbox 36 92 580 122; baseline 0 -6\">"
+                + "<span class='ocrx_word' id='word_1_1' title='bbox 36 92 96 116; x_wconf 90'>The</span>";
+        String expResult = "<span class='ocr_line' id='line_1_1' title=\"bbox 136 292 680 322; baseline 0 -6\">"
+                + "<span class='ocrx_word' id='word_1_1' title='bbox 136 292 196 316; x_wconf 90'>The</span>";
+        assertEquals(expResult, Utils.translateBoundingBoxes(hocr, 100, 200));
+    }
+
+    /**
+     * Test of translateBoundingBoxes method with recognized text resembling a
+     * bounding box and a page element.
+     */
+    @Test
+    public void testTranslateBoundingBoxes_Page() {
+        String hocr = "<div class='ocr_page' id='page_1' title='image \"crop.png\"; bbox 0 0 600 130; ppageno 0'>"
+                + "<span class='ocrx_word' id='word_1_1' title='bbox 36 92 96 116; x_wconf 90'>bbox 1 2 3 4</span></div>";
+        String expResult = "<div class='ocr_page' id='page_1' title='image \"crop.png\"; bbox 0 0 2480 3508; ppageno 0'>"
+                + "<span class='ocrx_word' id='word_1_1' title='bbox 136 292 196 316; x_wconf 90'>bbox 1 2 3 4</span></div>";
+        assertEquals(expResult, Utils.translateBoundingBoxes(hocr, 100, 200, 2480, 3508));
+    }
+
+    /**
+     * Test of translateBoxText method, of class Utils.
+     */
+    @Test
+    public void testTranslateBoxText() {
+        String box = "T 36 678 60 702 0\nh 62 678 85 704 0\n";
+        String expResult = "T 136 728 160 752 0\nh 162 728 185 754 0\n";
+        assertEquals(expResult, Utils.translateBoxText(box, 100, 50));
+        assertEquals("", Utils.translateBoxText("", 100, 50));
+    }
+}